@@ -0,0 +1,94 @@
+package jStructs.bench;
+import jStructs.ArrList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ArrList} appends, middle inserts and removes, and lookups, on lists of 10 to 10M items.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrListBenchmark
+{
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private ArrList<Integer, Object> list;
+    private Integer missing, present;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        this.list = ArrList.withCapacity(this.size);
+
+        for(int i = 0; i < this.size; i++)
+        {
+            this.list.add(i);
+        }
+
+        this.missing = -1;
+        this.present = this.size / 2;
+    }
+
+    /**
+     * Builds a whole list by appending, so the result is per list, not per item.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArrList<Integer, Object> appendAll()
+    {
+        ArrList<Integer, Object> list = new ArrList<>();
+
+        for(int i = 0; i < this.size; i++)
+        {
+            list.add(i);
+        }
+
+        return list;
+    }
+
+    /**
+     * Inserts in the middle and removes the item again, so the list keeps its size.
+     */
+    @Benchmark
+    public void insertRemoveMiddle()
+    {
+        int middle = this.list.length() / 2;
+
+        this.list.add(middle, this.missing);
+        this.list.remove(middle);
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole)
+    {
+        blackhole.consume(this.list.get(this.list.length() / 2));
+    }
+
+    @Benchmark
+    public void getOrNull(Blackhole blackhole)
+    {
+        blackhole.consume(this.list.getOrNull(this.list.length() / 2));
+    }
+
+    @Benchmark
+    public boolean containsMissing()
+    {
+        return this.list.contains(this.missing);
+    }
+
+    @Benchmark
+    public int[] indexesOf()
+    {
+        return this.list.indexesOf(this.present);
+    }
+}
@@ -0,0 +1,27 @@
+package jStructs.bench;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The benchmarks' entry point. It accepts the usual JMH command line, and always adds the {@code gc} profiler so every
+ * run reports allocation rates ({@code gc.alloc.rate.norm} is the amount of bytes allocated per operation).
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public final class BenchmarkRunner
+{
+    private BenchmarkRunner(){}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package jStructs.bench;
+import jStructs.ArrList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of {@code ArrList.fire} with an event object declaring 0, 1 or 8 handlers for the fired event, and of a
+ * full {@code add}/{@code remove} round trip with those handlers.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark
+{
+    @Param({"0", "1", "8"})
+    public int listeners;
+
+    private ArrList<Integer, Object> list;
+    private final Integer item = 42;
+
+    public static class NoListeners
+    {
+        public void unrelated(ArrList<?, ?> list, Object item, int index){}
+    }
+
+    public static class OneListener
+    {
+        public int count;
+
+        @ArrList.AddedEvent
+        public void added(ArrList<?, ?> list, Object item, int index)
+        {
+            this.count++;
+        }
+    }
+
+    public static class ManyListeners
+    {
+        public int count;
+
+        @ArrList.AddedEvent public void added0(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added1(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added2(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added3(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added4(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added5(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added6(ArrList<?, ?> list, Object item, int index) { this.count++; }
+        @ArrList.AddedEvent public void added7(ArrList<?, ?> list, Object item, int index) { this.count++; }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Object events;
+
+        switch(this.listeners)
+        {
+            case 0:
+                events = new NoListeners();
+                break;
+            case 1:
+                events = new OneListener();
+                break;
+            default:
+                events = new ManyListeners();
+                break;
+        }
+
+        this.list = ArrList.from(events);
+        this.list.add(0);
+        this.list.add(1);
+    }
+
+    @Benchmark
+    public void fireAdded()
+    {
+        this.list.fire(ArrList.Event.ADDED);
+    }
+
+    @Benchmark
+    public void addRemove()
+    {
+        this.list.add(this.item);
+        this.list.remove();
+    }
+}
@@ -0,0 +1,122 @@
+package jStructs.bench;
+import jStructs.ArenaLinkedList;
+import jStructs.DoublyLinkedList;
+import jStructs.DoublyNode;
+import jStructs.SinglyLinkedList;
+import jStructs.SinglyNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks of {@code SinglyLinkedList}, {@code DoublyLinkedList} and {@code ArenaLinkedList} chains: {@code length()},
+ * traversal and iteration, and cutting a {@code DoublyLinkedList} in half and joining it again.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkedListBenchmark
+{
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private SinglyNode<Integer> singlyHead;
+    private DoublyNode<Integer> doublyHead, doublyMiddle;
+    private SinglyLinkedList<Integer, Object> singly;
+    private DoublyLinkedList<Integer, Object> doubly;
+    private ArenaLinkedList<Integer, Object> arena;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        this.singlyHead = new SinglyNode<>(0);
+        this.doublyHead = new DoublyNode<>(0);
+
+        SinglyNode<Integer> singlyTail = this.singlyHead;
+        DoublyNode<Integer> doublyTail = this.doublyHead;
+
+        for(int i = 1; i < this.size; i++)
+        {
+            SinglyNode<Integer> singlyNode = new SinglyNode<>(i);
+            singlyTail.setNext(singlyNode);
+            singlyTail = singlyNode;
+
+            DoublyNode<Integer> doublyNode = new DoublyNode<>(i);
+            doublyTail.setNext(doublyNode);
+            doublyTail = doublyNode;
+            if(i == this.size / 2) this.doublyMiddle = doublyNode;
+        }
+
+        this.singly = SinglyLinkedList.from(this.singlyHead);
+        this.doubly = DoublyLinkedList.from(this.doublyHead);
+        this.arena = new ArenaLinkedList<>(this.size);
+
+        for(int i = 0; i < this.size; i++)
+        {
+            this.arena.addLast(i);
+        }
+    }
+
+    @Benchmark
+    public int singlyLength()
+    {
+        return this.singly.length();
+    }
+
+    @Benchmark
+    public int doublyLength()
+    {
+        return this.doubly.length();
+    }
+
+    @Benchmark
+    public void singlyTraverseToEnd()
+    {
+        this.singly.setCurrent(this.singlyHead);
+        this.singly.traverseNext(this.size - 1);
+    }
+
+    @Benchmark
+    public void doublyTraverseNext()
+    {
+        this.doubly.setCurrent(this.doublyHead);
+        this.doubly.traverseNext(this.size - 1);
+    }
+
+    @Benchmark
+    public void singlyForEach(Blackhole blackhole)
+    {
+        this.singly.setCurrent(this.singlyHead);
+        this.singly.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void doublyForEach(Blackhole blackhole)
+    {
+        this.doubly.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void doublySplitConcat()
+    {
+        this.doubly.concat(this.doubly.splitAt(this.doublyMiddle));
+    }
+
+    @Benchmark
+    public void arenaTraverseNext()
+    {
+        this.arena.setCurrent(this.arena.getHead());
+        this.arena.traverseNext(this.size - 1);
+    }
+
+    @Benchmark
+    public void arenaForEach(Blackhole blackhole)
+    {
+        this.arena.forEach(blackhole::consume);
+    }
+}
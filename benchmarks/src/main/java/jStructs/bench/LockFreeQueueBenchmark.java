@@ -0,0 +1,69 @@
+package jStructs.bench;
+import jStructs.LockFreeQueue;
+import jStructs.SinglyLinkedList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-off between 8 producer and 8 consumer threads, through a {@code LockFreeQueue} and through a
+ * {@code SinglyLinkedList} guarded by {@code synchronized}. Run with {@code -tg} to try other thread counts.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockFreeQueueBenchmark
+{
+    private LockFreeQueue<Integer, Object> queue;
+    private SinglyLinkedList<Integer, Object> list;
+
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        this.queue = new LockFreeQueue<>();
+        this.list = new SinglyLinkedList<>();
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(8)
+    public void offer()
+    {
+        this.queue.offer(1);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(8)
+    public void poll(Blackhole blackhole)
+    {
+        blackhole.consume(this.queue.poll());
+    }
+
+    @Benchmark
+    @Group("synchronizedList")
+    @GroupThreads(8)
+    public void addLast()
+    {
+        synchronized(this.list)
+        {
+            this.list.addLast(1);
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedList")
+    @GroupThreads(8)
+    public void removeFirst(Blackhole blackhole)
+    {
+        synchronized(this.list)
+        {
+            blackhole.consume(this.list.removeFirst());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package jStructs.bench;
+import jStructs.ArrList;
+import jStructs.TieredArrList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TieredArrList} middle inserts and removes, and lookups, next to the same operations on an {@code ArrList}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TieredArrListBenchmark
+{
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private TieredArrList<Integer, Object> tiered;
+    private ArrList<Integer, Object> list;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Integer[] items = new Integer[this.size];
+
+        for(int i = 0; i < this.size; i++)
+        {
+            items[i] = i;
+        }
+
+        this.tiered = TieredArrList.from(items);
+        this.list = ArrList.withCapacity(this.size);
+
+        for(Integer i : items)
+        {
+            this.list.add(i);
+        }
+    }
+
+    /**
+     * Inserts in the middle and removes the item again, so the list keeps its size.
+     */
+    @Benchmark
+    public void insertRemoveMiddle()
+    {
+        int middle = this.tiered.length() / 2;
+
+        this.tiered.add(middle, -1);
+        this.tiered.remove(middle);
+    }
+
+    @Benchmark
+    public void insertRemoveMiddleArrList()
+    {
+        int middle = this.list.length() / 2;
+
+        this.list.add(middle, -1);
+        this.list.remove(middle);
+    }
+
+    @Benchmark
+    public void getOrNull(Blackhole blackhole)
+    {
+        blackhole.consume(this.tiered.getOrNull(this.tiered.length() / 3));
+    }
+
+    @Benchmark
+    public void getOrNullArrList(Blackhole blackhole)
+    {
+        blackhole.consume(this.list.getOrNull(this.list.length() / 3));
+    }
+}
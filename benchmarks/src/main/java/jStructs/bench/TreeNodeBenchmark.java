@@ -0,0 +1,73 @@
+package jStructs.bench;
+import jStructs.TreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TreeNode.contains} on complete trees, looking for the last leaf and for a node that is not in the tree.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeNodeBenchmark
+{
+    @Param({"2", "8"})
+    public int fanOut;
+
+    @Param({"4", "8"})
+    public int depth;
+
+    private TreeNode<Integer> root, lastLeaf, outsider;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        this.root = new TreeNode<>();
+        this.root.set(0);
+        this.outsider = new TreeNode<>();
+        this.outsider.set(-1);
+
+        List<TreeNode<Integer>> level = List.of(this.root);
+        int value = 1;
+
+        for(int d = 0; d < this.depth && level.size() * this.fanOut <= 1_000_000; d++)
+        {
+            List<TreeNode<Integer>> next = new ArrayList<>();
+
+            for(TreeNode<Integer> parent : level)
+            {
+                for(int i = 0; i < this.fanOut; i++)
+                {
+                    TreeNode<Integer> child = new TreeNode<>();
+                    child.set(value++);
+                    child.setParent(parent);
+                    parent.addChild(child);
+                    next.add(child);
+                }
+            }
+
+            level = next;
+        }
+
+        this.lastLeaf = level.get(level.size() - 1);
+    }
+
+    @Benchmark
+    public boolean containsLastLeaf()
+    {
+        return TreeNode.contains(this.root, this.lastLeaf);
+    }
+
+    @Benchmark
+    public boolean containsMissing()
+    {
+        return TreeNode.contains(this.root, this.outsider);
+    }
+}
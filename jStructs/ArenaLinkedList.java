@@ -0,0 +1,680 @@
+package jStructs;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jStructs.DoublyLinkedList.Event;
+
+/**
+ * A doubly linked list whose nodes live in an arena instead of being objects of their own. Node values are kept in one
+ * array and the links in two {@code int[]}s, so a node is just an index into them, and removed nodes go on a free list
+ * to be reused by the next add. A chain of a million values is a handful of arrays instead of a million
+ * {@code DoublyNode}s, and after {@link #compact()} walking it reads each array front to back.
+ * <p>
+ * Its traversal and events are the same as {@code DoublyLinkedList}'s, with the annotated methods taking an
+ * {@code ArenaLinkedList} as their only argument. Nodes are passed around as their index; {@link #NONE} stands for no
+ * node. A node's index stays the same until it is removed or the list is compacted.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class ArenaLinkedList<T, T1>
+{
+    /**
+     * The index that stands for no node, like {@code null} does for {@code DoublyNode}s.
+     */
+    public static final int NONE = -1;
+
+    private Object[] values;
+    private int[] next, prev;
+    private int head = NONE, tail = NONE, current = NONE, free = NONE, size, used;
+    private T1 eventClassInstance;
+    private MethodHandle[] traverseNextHandlers = EventHandlers.NONE, traversePrevHandlers = EventHandlers.NONE,
+            nullTraverseHandlers = EventHandlers.NONE, setHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, ArenaLinkedList.class);
+    private static final int NODE_BYTES = Metrics.REFERENCE_BYTES + 2 * Integer.BYTES;
+
+    public ArenaLinkedList()
+    {
+        this(10);
+    }
+
+    /**
+     * @param capacity The amount of nodes the arena holds before it has to grow.
+     */
+    public ArenaLinkedList(int capacity)
+    {
+        this.values = new Object[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+    }
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TraverseNextEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TraversePrevEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface NullTraverseEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    /**
+     * @return A new {@code ArenaLinkedList} holding {@code values} in order, with the first one as the current node.
+     */
+    public static <T, T1> ArenaLinkedList<T, T1> from(T[] values)
+    {
+        ArenaLinkedList<T, T1> list = new ArenaLinkedList<>(Math.max(values.length, 1));
+        for(T value : values)
+        {
+            list.addLast(value);
+        }
+
+        return list;
+    }
+
+    public static <T, T1> ArenaLinkedList<T, T1> from(T1 eventClass)
+    {
+        ArenaLinkedList<T, T1> list = new ArenaLinkedList<>();
+        list.setEventClass(eventClass);
+
+        return list;
+    }
+
+    public static <T, T1> ArenaLinkedList<T, T1> from(T[] values, T1 eventClass)
+    {
+        ArenaLinkedList<T, T1> list = ArenaLinkedList.from(values);
+        list.setEventClass(eventClass);
+
+        return list;
+    }
+
+    /**
+     * Traverses the specified amount previously.
+     * @param length The amount to traverse
+     */
+    public void traversePrev(int length)
+    {
+        int current = this.current;
+        for(int i = 0; i < length; i++)
+        {
+            current = current == NONE ? NONE : this.prev[current];
+            if(current == NONE)
+            {
+                Metrics.traversed(this, i);
+                this.fire(Event.NULL_TRAVERSE);
+                return;
+            }
+        }
+
+        Metrics.traversed(this, length);
+        this.setCurrent(current);
+        this.fire(Event.TRAVERSE_PREV);
+    }
+
+    /**
+     * Traverses the specified amount next. Traversing past the last node leaves the list without a current node.
+     * @param length The amount to traverse
+     */
+    public void traverseNext(int length)
+    {
+        int current = this.current;
+        for(int i = 0; i < length; i++)
+        {
+            current = current == NONE ? NONE : this.next[current];
+            if(current == NONE)
+            {
+                Metrics.traversed(this, i);
+                this.fire(Event.NULL_TRAVERSE);
+                this.setCurrent(NONE);
+                return;
+            }
+        }
+
+        Metrics.traversed(this, length);
+        this.setCurrent(current);
+        this.fire(Event.TRAVERSE_NEXT);
+    }
+
+    /**
+     * Sets the list's current node.
+     * @param node The index of a node of the list, or {@link #NONE}.
+     */
+    public void setCurrent(int node)
+    {
+        if(node != NONE) this.checkNode(node);
+        this.current = node;
+
+        this.fire(Event.SET);
+    }
+
+    /**
+     * @return The index of the current node, or {@link #NONE}.
+     */
+    public int getCurrent()
+    {
+        return this.current;
+    }
+
+    /**
+     * @return The index of the list's first node, or {@link #NONE} if it is empty.
+     */
+    public int getHead()
+    {
+        return this.head;
+    }
+
+    /**
+     * @return The index of the list's last node, or {@link #NONE} if it is empty.
+     */
+    public int getTail()
+    {
+        return this.tail;
+    }
+
+    /**
+     * @return The index of the node after {@code node}, or {@link #NONE}.
+     */
+    public int nextOf(int node)
+    {
+        this.checkNode(node);
+        return this.next[node];
+    }
+
+    /**
+     * @return The index of the node before {@code node}, or {@link #NONE}.
+     */
+    public int prevOf(int node)
+    {
+        this.checkNode(node);
+        return this.prev[node];
+    }
+
+    /**
+     * @return An {@code Optional} containing the value of the current node.
+     */
+    public Optional<T> get()
+    {
+        return this.current == NONE ? Optional.empty() : this.get(this.current);
+    }
+
+    public Optional<T> get(int node)
+    {
+        return Optional.ofNullable(this.getOrNull(node));
+    }
+
+    /**
+     * @return The value of {@code node}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(int node)
+    {
+        this.checkNode(node);
+        return (T) this.values[node];
+    }
+
+    public void set(int node, T value)
+    {
+        this.checkNode(node);
+        this.values[node] = value;
+    }
+
+    /**
+     * Links a new node holding {@code value} before the list's first node, in O(1). If the list was empty, it also
+     * becomes the current node.
+     * @return The index of the new node.
+     */
+    public int addFirst(T value)
+    {
+        return this.head == NONE ? this.addLast(value) : this.addBefore(this.head, value);
+    }
+
+    /**
+     * Links a new node holding {@code value} after the list's last node, in O(1). If the list was empty, it also
+     * becomes the current node.
+     * @return The index of the new node.
+     */
+    public int addLast(T value)
+    {
+        if(this.tail != NONE) return this.addAfter(this.tail, value);
+
+        int node = this.allocate(value);
+        this.head = node;
+        this.tail = node;
+        this.current = node;
+
+        return node;
+    }
+
+    /**
+     * Links a new node holding {@code value} right after {@code node}, in O(1).
+     * @return The index of the new node.
+     */
+    public int addAfter(int node, T value)
+    {
+        this.checkNode(node);
+        int added = this.allocate(value), after = this.next[node];
+
+        this.prev[added] = node;
+        this.next[added] = after;
+        this.next[node] = added;
+
+        if(after == NONE) this.tail = added;
+        else this.prev[after] = added;
+
+        return added;
+    }
+
+    /**
+     * Links a new node holding {@code value} right before {@code node}, in O(1).
+     * @return The index of the new node.
+     */
+    public int addBefore(int node, T value)
+    {
+        this.checkNode(node);
+        int added = this.allocate(value), before = this.prev[node];
+
+        this.next[added] = node;
+        this.prev[added] = before;
+        this.prev[node] = added;
+
+        if(before == NONE) this.head = added;
+        else this.next[before] = added;
+
+        return added;
+    }
+
+    /**
+     * Unlinks {@code node} and puts it on the free list, in O(1). If it was the current node, the current node moves to
+     * the next one, or to the previous one if it was the last.
+     * @return An {@code Optional} containing the value of the removed node.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> remove(int node)
+    {
+        this.checkNode(node);
+        int before = this.prev[node], after = this.next[node];
+        T value = (T) this.values[node];
+
+        if(before == NONE) this.head = after;
+        else this.next[before] = after;
+
+        if(after == NONE) this.tail = before;
+        else this.prev[after] = before;
+
+        if(this.current == node) this.current = after != NONE ? after : before;
+
+        //  a freed node's prev is set to itself, which no linked node can have, so stale indexes are caught
+        this.values[node] = null;
+        this.prev[node] = node;
+        this.next[node] = this.free;
+        this.free = node;
+        this.size--;
+
+        return Optional.ofNullable(value);
+    }
+
+    public Optional<T> removeFirst()
+    {
+        return this.head == NONE ? Optional.empty() : this.remove(this.head);
+    }
+
+    public Optional<T> removeLast()
+    {
+        return this.tail == NONE ? Optional.empty() : this.remove(this.tail);
+    }
+
+    /**
+     * Removes every node. The arena keeps its capacity.
+     */
+    public void clear()
+    {
+        Arrays.fill(this.values, 0, this.used, null);
+        this.head = this.tail = this.current = this.free = NONE;
+        this.size = 0;
+        this.used = 0;
+    }
+
+    /**
+     * @return The amount of nodes in the list, in O(1).
+     */
+    public int length()
+    {
+        return this.size;
+    }
+
+    /**
+     * Moves the nodes so they are stored in list order, from index 0 up, and shrinks the arena to fit them. Walking the
+     * list then reads the arrays sequentially. It takes O(n), and changes the index of every node; the current node
+     * stays the same node.
+     */
+    public void compact()
+    {
+        Object[] values = new Object[Math.max(this.size, 1)];
+        int[] next = new int[values.length], prev = new int[values.length];
+        int current = NONE, i = 0;
+
+        for(int node = this.head; node != NONE; node = this.next[node], i++)
+        {
+            if(node == this.current) current = i;
+
+            values[i] = this.values[node];
+            prev[i] = i - 1;
+            next[i] = i + 1;
+        }
+        if(this.size > 0) next[this.size - 1] = NONE;
+
+        Metrics.resized(this, this.values.length, values.length, this.size, NODE_BYTES);
+        this.values = values;
+        this.next = next;
+        this.prev = prev;
+        this.head = this.size > 0 ? 0 : NONE;
+        this.tail = this.size - 1;
+        this.current = current;
+        this.free = NONE;
+        this.used = this.size;
+    }
+
+    /**
+     * @return A new array holding the list's values, from its first node to its last.
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toArray()
+    {
+        Object[] array = new Object[this.size];
+        int i = 0;
+
+        for(int node = this.head; node != NONE; node = this.next[node])
+        {
+            array[i++] = this.values[node];
+        }
+
+        return (T[]) array;
+    }
+
+    /**
+     * Performs {@code action} on every value of the list, from its first node to its last, without allocating.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action)
+    {
+        for(int node = this.head; node != NONE; node = this.next[node])
+        {
+            action.accept((T) this.values[node]);
+        }
+    }
+
+    /**
+     * @return An iterator over the indexes of the list's nodes, from its first node to its last.
+     */
+    public PrimitiveIterator.OfInt nodes()
+    {
+        return new PrimitiveIterator.OfInt()
+        {
+            private int next = ArenaLinkedList.this.head;
+
+            public boolean hasNext()
+            {
+                return this.next != NONE;
+            }
+
+            public int nextInt()
+            {
+                if(this.next == NONE) throw new NoSuchElementException();
+
+                int node = this.next;
+                this.next = ArenaLinkedList.this.next[node];
+
+                return node;
+            }
+        };
+    }
+
+    /**
+     * @return A {@code Spliterator} over every value of the list, from its first node to its last.
+     */
+    public Spliterator<T> spliterator()
+    {
+        PrimitiveIterator.OfInt nodes = this.nodes();
+
+        return Spliterators.spliterator(new Iterator<T>()
+        {
+            public boolean hasNext()
+            {
+                return nodes.hasNext();
+            }
+
+            @SuppressWarnings("unchecked")
+            public T next()
+            {
+                return (T) ArenaLinkedList.this.values[nodes.nextInt()];
+            }
+        }, this.size, Spliterator.ORDERED);
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClass The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClass)
+    {
+        this.eventClassInstance = eventClass;
+
+        this.traverseNextHandlers = EventHandlers.bind(eventClass, TraverseNextEvent.class, LIST_TYPE);
+        this.traversePrevHandlers = EventHandlers.bind(eventClass, TraversePrevEvent.class, LIST_TYPE);
+        this.nullTraverseHandlers = EventHandlers.bind(eventClass, NullTraverseEvent.class, LIST_TYPE);
+        this.setHandlers = EventHandlers.bind(eventClass, SetEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the traversing call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event));
+    }
+
+    public void fire(Event e)
+    {
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, null, 0);
+        }
+        else
+        {
+            this.dispatch(e);
+        }
+    }
+
+    private void dispatch(Event e)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                h.invokeExact(this);
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case NULL_TRAVERSE:
+                return this.nullTraverseHandlers;
+            case TRAVERSE_NEXT:
+                return this.traverseNextHandlers;
+            case TRAVERSE_PREV:
+                return this.traversePrevHandlers;
+            case SET:
+                return this.setHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    /**
+     * @return The index of a node holding {@code value}, taken from the free list if possible.
+     */
+    private int allocate(T value)
+    {
+        int node;
+
+        if(this.free != NONE)
+        {
+            node = this.free;
+            this.free = this.next[node];
+        }
+        else
+        {
+            if(this.used == this.values.length) this.grow();
+            node = this.used++;
+        }
+
+        this.values[node] = value;
+        this.next[node] = NONE;
+        this.prev[node] = NONE;
+        this.size++;
+
+        return node;
+    }
+
+    private void grow()
+    {
+        int capacity = Math.max(this.values.length + (this.values.length >> 1), this.values.length + 1);
+
+        Metrics.resized(this, this.values.length, capacity, this.used, NODE_BYTES);
+        this.values = Arrays.copyOf(this.values, capacity);
+        this.next = Arrays.copyOf(this.next, capacity);
+        this.prev = Arrays.copyOf(this.prev, capacity);
+    }
+
+    private void checkNode(int node)
+    {
+        Objects.checkIndex(node, this.used);
+        if(this.prev[node] == node) throw new IllegalArgumentException("node " + node + " was removed");
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an
+     * ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.DOUBLY);
+        for(int node = this.head; node != NONE && renderer.add(this.values[node]); node = this.next[node]);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    /**
+     * @return Whether {@code o} is an {@code ArenaLinkedList} holding equal values in the same order.
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof ArenaLinkedList)) return false;
+        ArenaLinkedList<?, ?> oList = (ArenaLinkedList<?, ?>) o;
+        if(oList.size != this.size) return false;
+
+        for(int node = this.head, oNode = oList.head; node != NONE; node = this.next[node], oNode = oList.next[oNode])
+        {
+            if(!Objects.equals(this.values[node], oList.values[oNode])) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return A new list with the same nodes, at the same indexes, and the same event object. No events are fired.
+     */
+    @Override
+    public Object clone()
+    {
+        ArenaLinkedList<T, T1> clone = new ArenaLinkedList<>(0);
+        clone.values = this.values.clone();
+        clone.next = this.next.clone();
+        clone.prev = this.prev.clone();
+        clone.head = this.head;
+        clone.tail = this.tail;
+        clone.current = this.current;
+        clone.free = this.free;
+        clone.size = this.size;
+        clone.used = this.used;
+        clone.setEventClass(this.eventClassInstance);
+
+        return clone;
+    }
+}
@@ -1,23 +1,52 @@
 package jStructs;
 
+import java.io.IOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
-import java.lang.reflect.*;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
  */
-//todo : if an event is null do NOT call it
 public class ArrList<T, T1> {
-    private Object[] array = new Object[0];
-    private Class<T1> eventClass;
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+
+    private Object[] array = EMPTY_ARRAY;
+    private int size;
     private T1 eventClassInstance;
     private T addedItem, removedItem, setItem;
     private int addedIndex, removedIndex, setIndex;
+    private Removal bulkRemoval;
+    private boolean bulkRemovedEvents;
+    private MethodHandle[] setHandlers = EventHandlers.NONE, addedHandlers = EventHandlers.NONE,
+            removedHandlers = EventHandlers.NONE, invalidIndexHandlers = EventHandlers.NONE,
+            bulkRemovedHandlers = EventHandlers.NONE, sortedHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+    private ValueIndex index;
+    Journal<T> journal;
+    private Comparator<? super T> order;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, ArrList.class);
+    private static final MethodType ITEM_TYPE = MethodType.methodType(void.class, ArrList.class, Object.class, int.class);
+    private static final MethodType BULK_TYPE = MethodType.methodType(void.class, ArrList.class, Object[].class, int[].class);
 
     @Target(ElementType.METHOD)
     @Retention(RetentionPolicy.RUNTIME)
@@ -35,6 +64,21 @@ public class ArrList<T, T1> {
     @Retention(RetentionPolicy.RUNTIME)
     public @interface InvalidIndexEvent{}
 
+    /**
+     * Methods with the {@code SortedEvent} annotation must only have 1 argument, the {@code ArrList} that was sorted.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SortedEvent{}
+
+    /**
+     * Methods with the {@code BulkRemovedEvent} annotation must have 3 arguments: the {@code ArrList}, an
+     * {@code Object[]} of the removed items and an {@code int[]} of the indexes they had before the removal.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface BulkRemovedEvent{}
+
     @Target(ElementType.METHOD)
     @Retention(RetentionPolicy.RUNTIME)
     public @interface Filter{}
@@ -43,12 +87,26 @@ public class ArrList<T, T1> {
         SET,
         ADDED,
         REMOVED,
-        INVALID_INDEX
+        INVALID_INDEX,
+        BULK_REMOVED,
+        SORTED
+    }
+
+    private static final class Removal
+    {
+        private final Object[] items;
+        private final int[] indexes;
+
+        private Removal(Object[] items, int[] indexes)
+        {
+            this.items = items;
+            this.indexes = indexes;
+        }
     }
 
     public static <T, T1> ArrList<T, T1> from(T[] array)
     {
-        ArrList<T, T1> list = new ArrList<>();
+        ArrList<T, T1> list = ArrList.withCapacity(array.length);
 
         for(int i = 0; i < array.length; i++)
         {
@@ -74,76 +132,168 @@ public class ArrList<T, T1> {
         return list;
     }
 
-    public void add(T item)
+    /**
+     * @param capacity The amount of items the list can hold before its backing array has to grow.
+     * @return A new, empty {@code ArrList} with the specified initial capacity.
+     */
+    public static <T, T1> ArrList<T, T1> withCapacity(int capacity)
     {
-        Object[] newArray = new Object[this.array.length + 1];
+        ArrList<T, T1> list = new ArrList<>();
+        list.ensureCapacity(capacity);
+
+        return list;
+    }
+
+    public static <T, T1> ArrList<T, T1> withCapacity(int capacity, T1 eventInstance)
+    {
+        ArrList<T, T1> list = ArrList.withCapacity(capacity);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    /**
+     * Loads a list saved with {@link #save(Path, RecordCodec)}. The backing array is filled directly from the mapped
+     * file, so no events are fired.
+     * @param codec The codec the list was saved with.
+     * @throws IOException If the file can't be read, isn't a saved list, or was saved with a different record size.
+     */
+    public static <T, T1> ArrList<T, T1> load(Path path, RecordCodec<T> codec) throws IOException
+    {
+        ArrList<T, T1> list = new ArrList<>();
+        list.array = RecordFile.readAll(path, codec);
+        list.size = list.array.length;
+
+        return list;
+    }
 
-        for(int i = 0; i < this.array.length; i++)
+    public static <T, T1> ArrList<T, T1> load(Path path, RecordCodec<T> codec, T1 eventInstance) throws IOException
+    {
+        ArrList<T, T1> list = ArrList.load(path, codec);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    /**
+     * Saves the list's items to a binary file, one fixed-width record per item, replacing the file if it exists. See
+     * {@link #load(Path, RecordCodec)} and {@link OffHeapArrList#map(Path, RecordCodec)}.
+     * @param codec The codec that writes each item. It must accept every item of the list.
+     */
+    @SuppressWarnings("unchecked")
+    public void save(Path path, RecordCodec<T> codec) throws IOException
+    {
+        Object[] array = this.array;
+        RecordFile.write(path, codec, this.size, i -> (T) array[i]);
+    }
+
+    /**
+     * Grows the backing array, if needed, so it can hold at least {@code minCapacity} items without reallocating.
+     * @param minCapacity The minimum capacity to guarantee
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        if(minCapacity <= this.array.length) return;
+
+        int newCapacity = this.array.length == 0 ? DEFAULT_CAPACITY : this.array.length + (this.array.length >> 1);
+        if(newCapacity < minCapacity || newCapacity < 0) newCapacity = minCapacity;
+
+        Metrics.resized(this, this.array.length, newCapacity, this.size, Metrics.REFERENCE_BYTES);
+        this.array = Arrays.copyOf(this.array, newCapacity);
+    }
+
+    /**
+     * Shrinks the backing array so its capacity matches the list's length.
+     */
+    public void trimToSize()
+    {
+        if(this.size < this.array.length)
         {
-            newArray[i] = this.array[i];
+            Metrics.resized(this, this.array.length, this.size, this.size, Metrics.REFERENCE_BYTES);
+            this.array = this.size == 0 ? EMPTY_ARRAY : Arrays.copyOf(this.array, this.size);
         }
+    }
 
-        newArray[this.array.length] = item;
+    /**
+     * @return The amount of items the list can hold before its backing array has to grow.
+     */
+    public int capacity()
+    {
+        return this.array.length;
+    }
+
+    /**
+     * Appends {@code item} to the list. If the list is sorted (see {@link #setSorted(Comparator)}), it is inserted after
+     * the items comparing equal to it instead, and the {@code ADDED} event carries that index.
+     */
+    public void add(T item)
+    {
+        if(this.order != null)
+        {
+            this.insert(this.upperBound(item), item);
+            return;
+        }
+
+        this.ensureCapacity(this.size + 1);
+        this.array[this.size] = item;
+        if(this.index != null) this.index.add(item, this.size);
 
         this.addedItem = item;
-        this.addedIndex = this.array.length;
-        this.array = newArray;
+        this.addedIndex = this.size;
+        this.size++;
+        if(this.journal != null) this.journal.added(this.addedIndex, item);
 
         this.fire(Event.ADDED);
     }
 
     public void add(int index, T item)
     {
-        Object[] newArray = new Object[this.array.length + 1];
+        this.ensureUnsorted();
+        this.insert(index, item);
+    }
+
+    private void insert(int index, T item)
+    {
+        Objects.checkIndex(index, this.size + 1);
+
+        this.ensureCapacity(this.size + 1);
+        System.arraycopy(this.array, index, this.array, index + 1, this.size - index);
+        Metrics.copied(this.size - index, Metrics.REFERENCE_BYTES);
+        this.array[index] = item;
 
-        for(int i = 0; i < this.array.length; i++)
+        if(this.index != null)
         {
-            if(i < index)
-            {
-                newArray[i] = this.array[i];
-            }
-            else if(i == index)
-            {
-                newArray[i] = item;
-            }
-            else if(i > index)
-            {
-                newArray[i] = this.array[i - 1];
-            }
+            this.index.shift(this.array, index + 1, this.size + 1, index, 1);
+            this.index.add(item, index);
         }
 
-        newArray[this.array.length] = this.array[this.array.length - 1];
-
         this.addedItem = item;
         this.addedIndex = index;
-        this.array = newArray;
+        this.size++;
+        if(this.journal != null) this.journal.added(index, item);
 
         this.fire(Event.ADDED);
     }
 
     public void remove()
     {
-        if(this.array.length == 1)
+        if(this.size == 1)
         {
             this.clear();
             return;
         }
-        if(this.array.length == 0)
+        if(this.size == 0)
         {
             this.fire(Event.INVALID_INDEX);
             return;
         }
 
-        Object[] newArray = new Object[this.array.length - 1];
-
-        for(int i = 0; i < this.array.length - 1; i++)
-        {
-            newArray[i] = this.array[i];
-        }
-
-        this.removedItem = (T) this.array[newArray.length];
-        this.removedIndex = newArray.length;
-        this.array = newArray;
+        this.size--;
+        this.removedItem = (T) this.array[this.size];
+        this.removedIndex = this.size;
+        this.array[this.size] = null;
+        if(this.index != null) this.index.remove(this.removedItem, this.size);
+        if(this.journal != null) this.journal.removed(this.size);
 
         this.fire(Event.REMOVED);
 
@@ -151,34 +301,156 @@ public class ArrList<T, T1> {
 
     public void removeAll(T item)
     {
-        int[] indexes = this.indexesOf(item);
-        int offset = 0;
-        for(int i : indexes)
+        this.removeIf(o -> Objects.equals(o, item));
+    }
+
+    /**
+     * Removes every item equal to one in {@code items}.
+     * @return The amount of items removed.
+     */
+    public int removeAllIn(ArrList<T, ?> items)
+    {
+        Predicate<T> contained = this.containedIn(items);
+        return this.removeIf(contained);
+    }
+
+    /**
+     * Removes every item not equal to any in {@code items}.
+     * @return The amount of items removed.
+     */
+    public int retainAllIn(ArrList<T, ?> items)
+    {
+        Predicate<T> contained = this.containedIn(items);
+        return this.removeIf(contained.negate());
+    }
+
+    /**
+     * @return A test for whether a value equals one in {@code items}: its value index if it has one, and otherwise a
+     * hash set of its items, built once, so a bulk removal doesn't scan {@code items} for every value. A sorted list's
+     * own {@code contains} isn't used, since it matches by its comparator rather than by {@code equals}.
+     */
+    private Predicate<T> containedIn(ArrList<T, ?> items)
+    {
+        //  this list's own array is rewritten while removeIf runs, so it can't be searched meanwhile
+        if(items != this && items.index != null) return items.index::contains;
+
+        Set<Object> set = new HashSet<>(Math.max(16, (int) (items.size / .75f) + 1));
+        for(int i = 0; i < items.size; i++)
         {
-            this.remove(i - offset);
-            offset++;
+            set.add(items.array[i]);
         }
+
+        return set::contains;
     }
 
-    public void remove(int index)
+    /**
+     * Removes every item matching {@code filter} in a single pass over the list. Once the list has been compacted,
+     * either a single {@code BULK_REMOVED} event or one {@code REMOVED} event per item is fired, see
+     * {@link #setBulkRemovedEvents(boolean)}.
+     * @param filter The predicate deciding which items get removed
+     * @return The amount of items removed.
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(Predicate<? super T> filter)
     {
-        Object[] newArr = new Object[this.array.length - 1];
+        boolean record = this.removedHandlers.length > 0 || this.bulkRemovedHandlers.length > 0;
+        Object[] removedItems = record ? new Object[8] : null;
+        int[] removedIndexes = record || this.journal != null ? new int[8] : null;
+        int kept = 0, removed = 0, i = 0;
 
-        for(int i = 0; i < this.array.length - 1; i++)
+        try
         {
-            if(i < index)
+            for(; i < this.size; i++)
             {
-                newArr[i] = this.array[i];
+                Object o = this.array[i];
+
+                if(!filter.test((T) o))
+                {
+                    this.array[kept++] = o;
+                    continue;
+                }
+
+                if(removedIndexes != null)
+                {
+                    if(removed == removedIndexes.length)
+                    {
+                        if(record) removedItems = Arrays.copyOf(removedItems, removed * 2);
+                        removedIndexes = Arrays.copyOf(removedIndexes, removed * 2);
+                    }
+                    if(record) removedItems[removed] = o;
+                    removedIndexes[removed] = i;
+                }
+                removed++;
             }
-            else if(i >= index)
+        }
+        finally
+        {
+            //  if the filter threw, keep the items it never got to
+            System.arraycopy(this.array, i, this.array, kept, this.size - i);
+            kept += this.size - i;
+
+            Arrays.fill(this.array, kept, this.size, null);
+            this.size = kept;
+            if(removed > 0 && this.index != null) this.index = ValueIndex.of(this.array, this.size);
+            if(this.journal != null)
             {
-                newArr[i] = this.array[i + 1];
+                //  logged as single removals, each at the index the item had once the ones before it were removed
+                for(int j = 0; j < removed; j++)
+                {
+                    this.journal.removed(removedIndexes[j] - j);
+                }
             }
         }
 
+        if(removed == 0 || !record) return removed;
+
+        if(this.bulkRemovedEvents)
+        {
+            this.bulkRemoval = new Removal(Arrays.copyOf(removedItems, removed), Arrays.copyOf(removedIndexes, removed));
+            this.fire(Event.BULK_REMOVED);
+            this.bulkRemoval = null;
+        }
+        else
+        {
+            for(int j = 0; j < removed; j++)
+            {
+                //  the index the item had when everything before it was already removed
+                this.removedItem = (T) removedItems[j];
+                this.removedIndex = removedIndexes[j] - j;
+                this.fire(Event.REMOVED);
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * @param bulkRemovedEvents {@code true} to have {@code removeIf}, {@code removeAllIn} and {@code retainAllIn} fire a
+     * single {@code BULK_REMOVED} event, {@code false} (the default) to have them fire a {@code REMOVED} event per item.
+     */
+    public void setBulkRemovedEvents(boolean bulkRemovedEvents)
+    {
+        this.bulkRemovedEvents = bulkRemovedEvents;
+    }
+
+    public void remove(int index)
+    {
+        Objects.checkIndex(index, this.size);
+
         this.removedIndex = index;
         this.removedItem = (T) this.array[index];
-        this.array = newArr;
+
+        System.arraycopy(this.array, index + 1, this.array, index, this.size - index - 1);
+        Metrics.copied(this.size - index - 1, Metrics.REFERENCE_BYTES);
+        this.size--;
+        this.array[this.size] = null;
+
+        if(this.index != null)
+        {
+            this.index.remove(this.removedItem, index);
+            this.index.shift(this.array, index, this.size, index + 1, -1);
+        }
+        if(this.journal != null) this.journal.removed(index);
 
         this.fire(Event.REMOVED);
 
@@ -186,34 +458,59 @@ public class ArrList<T, T1> {
 
     public void set(int index, T item)
     {
-        this.fire(Event.SET);
+        this.ensureUnsorted();
+        Objects.checkIndex(index, this.size);
 
+        if(this.index != null)
+        {
+            this.index.remove(this.array[index], index);
+            this.index.add(item, index);
+        }
         this.array[index] = item;
+        if(this.journal != null) this.journal.set(index, item);
         this.setIndex = index;
         this.setItem = item;
+        this.fire(Event.SET);
     }
 
     public Optional<T> get(int index)
     {
+        Objects.checkIndex(index, this.size);
         return Optional.ofNullable((T)this.array[index]);
     }
 
+    /**
+     * @return The item at {@code index}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(int index)
+    {
+        Objects.checkIndex(index, this.size);
+        return (T) this.array[index];
+    }
+
     public boolean contains(T item)
     {
-        for(Object o : this.array)
+        if(this.index != null) return this.index.contains(item);
+        if(this.order != null) return this.lowerBound(item) != this.upperBound(item);
+
+        for(int i = 0; i < this.size; i++)
         {
-            if(o.equals(item)) return true;
+            if(this.array[i].equals(item)) return true;
         }
         return false;
     }
 
     public int occurrencesOf(T item)
     {
+        if(this.index != null) return this.index.occurrencesOf(item);
+        if(this.order != null) return this.upperBound(item) - this.lowerBound(item);
+
         int occurences = 0;
 
-        for(Object o : this.array)
+        for(int i = 0; i < this.size; i++)
         {
-            if(o.equals(item)) occurences++;
+            if(this.array[i].equals(item)) occurences++;
         }
 
         return occurences;
@@ -221,10 +518,23 @@ public class ArrList<T, T1> {
 
     public int[] indexesOf(T item)
     {
+        if(this.index != null) return this.index.positionsOf(item);
+        if(this.order != null)
+        {
+            int from = this.lowerBound(item), to = this.upperBound(item);
+            int[] indexes = new int[to - from];
+
+            for(int i = 0; i < indexes.length; i++)
+            {
+                indexes[i] = from + i;
+            }
+            return indexes;
+        }
+
         int occurences = this.occurrencesOf(item), offset = 0;
         int[] indexes = new int[occurences];
 
-        for(int i = 0; i < this.array.length; i++)
+        for(int i = 0; i < this.size; i++)
         {
             if(this.array[i].equals(item))
             {
@@ -236,95 +546,336 @@ public class ArrList<T, T1> {
         return indexes;
     }
 
+    /**
+     * Sorts the list in place, in parallel for large lists, then fires a single {@code SORTED} event. While sorted mode
+     * is on (see {@link #setSorted(Comparator)}), {@code comparator} also becomes the order the list keeps from then on.
+     * @param comparator The order to sort by, {@code null} meaning the items' natural order
+     */
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super T> comparator)
+    {
+        if(this.size >= PARALLEL_SORT_THRESHOLD)
+        {
+            Arrays.parallelSort((T[]) this.array, 0, this.size, comparator);
+        }
+        else
+        {
+            Arrays.sort((T[]) this.array, 0, this.size, comparator);
+        }
+        if(this.order != null)
+        {
+            this.order = comparator != null ? comparator : (Comparator<? super T>) (Comparator<?>) Comparator.naturalOrder();
+        }
+        if(this.index != null) this.index = ValueIndex.of(this.array, this.size);
+        if(this.journal != null) this.journal.rewritten();
+
+        this.fire(Event.SORTED);
+    }
+
+    /**
+     * Searches the list, which must be sorted by {@code comparator}, for {@code item}.
+     * @return The index of an item comparing equal to {@code item}, or {@code -(insertion point) - 1} if there is none,
+     * like {@code Arrays.binarySearch}.
+     */
+    @SuppressWarnings("unchecked")
+    public int binarySearch(T item, Comparator<? super T> comparator)
+    {
+        return Arrays.binarySearch((T[]) this.array, 0, this.size, item, comparator);
+    }
+
+    /**
+     * Turns sorted mode on or off. While it is on, the list is kept sorted: {@code add(T)} inserts at the
+     * binary-searched position, and {@code contains}, {@code occurrencesOf} and {@code indexesOf} use binary search,
+     * matching the items that compare equal to the one given. {@code add(int, T)} and {@code set} would break the
+     * order, so they throw an {@code UnsupportedOperationException}.
+     * @param comparator The order to keep, or {@code null} to turn sorted mode off. Turning it on sorts the list.
+     */
+    public void setSorted(Comparator<? super T> comparator)
+    {
+        if(comparator != null) this.sort(comparator);
+        this.order = comparator;
+    }
+
+    public boolean isSorted()
+    {
+        return this.order != null;
+    }
+
+    private void ensureUnsorted()
+    {
+        if(this.order != null) throw new UnsupportedOperationException("positional writes are not allowed on a sorted ArrList");
+    }
+
+    /**
+     * @return The index of the first item that does not compare lower than {@code item}.
+     */
+    @SuppressWarnings("unchecked")
+    private int lowerBound(T item)
+    {
+        int low = 0, high = this.size;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(this.order.compare((T) this.array[mid], item) < 0) low = mid + 1;
+            else high = mid;
+        }
+
+        return low;
+    }
+
+    /**
+     * @return The index of the first item that compares higher than {@code item}.
+     */
+    @SuppressWarnings("unchecked")
+    private int upperBound(T item)
+    {
+        int low = 0, high = this.size;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(this.order.compare((T) this.array[mid], item) <= 0) low = mid + 1;
+            else high = mid;
+        }
+
+        return low;
+    }
+
     public void fire(Event e)
     {
-        Method[] methods = this.eventClass.getDeclaredMethods();
+        switch(e)
+        {
+            case INVALID_INDEX:
+                this.fire(e, null, -1);
+                break;
+            case REMOVED:
+                this.fire(e, this.removedItem, this.removedIndex);
+                break;
+            case ADDED:
+                this.fire(e, this.addedItem, this.addedIndex);
+                break;
+            case SET:
+                this.fire(e, this.setItem, this.setIndex);
+                break;
+            case BULK_REMOVED:
+                this.fire(e, this.bulkRemoval, -1);
+                break;
+            case SORTED:
+                this.fire(e, null, -1);
+                break;
+        }
+    }
+
+    private void fire(Event e, Object item, int index)
+    {
+        if(this.handlersOf(e).length == 0) return;
 
-        for(Method m : methods)
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, item, index);
+        }
+        else
         {
-            switch(e)
+            this.dispatch(e, item, index);
+        }
+    }
+
+    private void dispatch(Event e, Object item, int index)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
             {
-                case INVALID_INDEX:
-                    if(m.getParameterCount() != 1 || m.getDeclaredAnnotation(InvalidIndexEvent.class) == null)
-                    {
-                        continue;
-                    }
-                    try
-                    {
-                        m.invoke(this.eventClassInstance, this);
-                    }catch(Exception ex)
-                    {
-                        ex.printStackTrace();
-                    }
-                    break;
-                case REMOVED:
-                    if(m.getParameterCount() != 3 || m.getDeclaredAnnotation(RemovedEvent.class) == null)
-                    {
-                        continue;
-                    }
-                    try
-                    {
-                        m.invoke(this.eventClassInstance, this, this.removedItem, this.removedIndex);
-                    }catch(Exception ex)
-                    {
-                        ex.printStackTrace();
-                    }
-                    break;
-                case ADDED:
-                    if(m.getParameterCount() != 3 || m.getDeclaredAnnotation(AddedEvent.class) == null)
-                    {
-                        continue;
-                    }
-                    try
-                    {
-                        m.invoke(this.eventClassInstance, this, this.addedItem, this.addedIndex);
-                    }catch(Exception ex)
-                    {
-                        ex.printStackTrace();
-                    }
-                    break;
-                case SET:
-                    if(m.getParameterCount() != 3 || m.getDeclaredAnnotation(SetEvent.class) == null)
-                    {
-                        continue;
-                    }
-                    try
-                    {
-                        m.invoke(this.eventClassInstance, this, this.setItem, this.setIndex);
-                    }catch(Exception ex)
-                    {
-                        ex.printStackTrace();
-                    }
-                    break;
+                if(e == Event.INVALID_INDEX || e == Event.SORTED)
+                {
+                    h.invokeExact(this);
+                }
+                else if(e == Event.BULK_REMOVED)
+                {
+                    h.invokeExact(this, ((Removal) item).items, ((Removal) item).indexes);
+                }
+                else
+                {
+                    h.invokeExact(this, item, index);
+                }
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
             }
         }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
     }
 
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case SET:
+                return this.setHandlers;
+            case ADDED:
+                return this.addedHandlers;
+            case REMOVED:
+                return this.removedHandlers;
+            case INVALID_INDEX:
+                return this.invalidIndexHandlers;
+            case BULK_REMOVED:
+                return this.bulkRemovedHandlers;
+            case SORTED:
+                return this.sortedHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+
     public void clear()
     {
-        this.array = new Object[0];
+        Arrays.fill(this.array, 0, this.size, null);
+        this.size = 0;
+        if(this.index != null) this.index.clear();
+        if(this.journal != null) this.journal.cleared();
     }
 
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClassInstance The event object, or {@code null} to stop firing events.
+     */
     public void setEventClass(T1 eventClassInstance)
     {
-        this.eventClass = (Class<T1>) eventClassInstance.getClass();
         this.eventClassInstance = eventClassInstance;
+
+        this.setHandlers = EventHandlers.bind(eventClassInstance, SetEvent.class, ITEM_TYPE);
+        this.addedHandlers = EventHandlers.bind(eventClassInstance, AddedEvent.class, ITEM_TYPE);
+        this.removedHandlers = EventHandlers.bind(eventClassInstance, RemovedEvent.class, ITEM_TYPE);
+        this.invalidIndexHandlers = EventHandlers.bind(eventClassInstance, InvalidIndexEvent.class, LIST_TYPE);
+        this.bulkRemovedHandlers = EventHandlers.bind(eventClassInstance, BulkRemovedEvent.class, BULK_TYPE);
+        this.sortedHandlers = EventHandlers.bind(eventClassInstance, SortedEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list durable: the journal saves a snapshot of the list right away, then logs every later mutation.
+     * The previous journal, if any, is closed. See {@link Journal#replay()} to get the list back.
+     * @param journal The journal to log to, or {@code null} to stop journaling.
+     */
+    public void setJournal(Journal<T> journal) throws IOException
+    {
+        if(this.journal != null) this.journal.close();
+        if(journal != null) journal.attach(this);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the mutating call. The item and index of each event are captured when it is published, while the list
+     * passed to the event methods is the live list.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event, item, index));
+    }
+
+    /**
+     * Turns the value index on or off. While it is on, the list keeps a hash map from each item to the sorted indexes
+     * it is stored at, so {@code contains} and {@code occurrencesOf} take constant time and {@code indexesOf} takes
+     * time proportional to the amount of indexes returned. In exchange, every mutation also updates the map, and
+     * inserting or removing anywhere but the end updates the indexes of every item after it.
+     * <p>
+     * Items are matched by {@code hashCode} and {@code equals}, so they must not change while they are in the list.
+     * @param indexed {@code true} to build the index from the list's current items, {@code false} to drop it.
+     */
+    public void setIndexed(boolean indexed)
+    {
+        if(indexed == this.isIndexed()) return;
+        this.index = indexed ? ValueIndex.of(this.array, this.size) : null;
+    }
+
+    public boolean isIndexed()
+    {
+        return this.index != null;
+    }
+
+    /**
+     * @return A {@code Spliterator} over the list's items, split by index range.
+     */
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(this.array, 0, this.size, Spliterator.ORDERED);
+    }
+
+    /**
+     * Performs {@code action} on every item of the list, in order, without allocating.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action)
+    {
+        Object[] array = this.array;
+
+        for(int i = 0, size = this.size; i < size; i++)
+        {
+            action.accept((T) array[i]);
+        }
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
     }
 
     public int length()
     {
-        return this.array.length;
+        return this.size;
     }
 
     public T[] toArray()
     {
-        return (T[]) this.array;
+        return (T[]) Arrays.copyOf(this.array, this.size);
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an ellipsis
+     * once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.ARRAY);
+        for(int i = 0; i < this.size && renderer.add(this.array[i]); i++);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
     }
 
     @Override
     public String toString()
     {
-        return Arrays.toString(this.array);
+        return this.render(RenderOptions.DEFAULT);
     }
 
     @Override
@@ -337,13 +888,15 @@ public class ArrList<T, T1> {
     public boolean equals(Object o)
     {
         if(!(o instanceof ArrList)) return false;
-        return Arrays.equals(((ArrList<?, ?>) o).array, this.array) && (((ArrList<?, ?>) o).eventClassInstance == this.eventClassInstance);
+        ArrList<?, ?> oList = (ArrList<?, ?>) o;
+
+        return Arrays.equals(oList.array, 0, oList.size, this.array, 0, this.size) && (oList.eventClassInstance == this.eventClassInstance);
     }
 
     @Override
     public Object clone()
     {
-        return ArrList.from(this.array, this.eventClassInstance);
+        return ArrList.from(this.toArray(), this.eventClassInstance);
     }
 
 
@@ -0,0 +1,115 @@
+package jStructs;
+
+/**
+ * A change counter shared by every node that was ever linked to another, so a list can tell in O(1) whether its nodes
+ * were relinked or given new values by anything but itself. Linking two nodes merges their counters, union-find style,
+ * and bumps the merged one; unlinking or setting a value bumps it too. Counters are never split again, so nodes that
+ * were once linked keep sharing one, which at worst makes a list count its nodes again when it didn't need to.
+ * <p>
+ * A node only gets a counter once it is linked through its public methods, or a list looks at it, so the chains of the
+ * lock-free structures never have one. Like the nodes themselves, counters aren't safe for concurrent use.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class Chain
+{
+    private Chain parent;
+    private int version, rank;
+
+    /**
+     * A single cached node hash: the node it belongs to, and the version it was computed at.
+     */
+    private Object hashNode;
+    private int hash, hashVersion;
+
+    /**
+     * @return The counter at the root of this one's tree, which is the one actually counting. Every counter on the way
+     * is repointed at it, so finding it again takes O(1).
+     */
+    Chain root()
+    {
+        Chain root = this;
+        while(root.parent != null)
+        {
+            root = root.parent;
+        }
+
+        for(Chain chain = this, parent; chain != root; chain = parent)
+        {
+            parent = chain.parent;
+            chain.parent = root;
+        }
+
+        return root;
+    }
+
+    /**
+     * @return The version of the root counter, which changes every time one of its nodes does.
+     */
+    int version()
+    {
+        return this.root().version;
+    }
+
+    /**
+     * Records that one of the counter's nodes changed.
+     * @return The root counter, for the node to keep.
+     */
+    Chain changed()
+    {
+        Chain root = this.root();
+        root.version++;
+        return root;
+    }
+
+    /**
+     * Records that two nodes were linked, merging their counters. Either of them may be {@code null} if its node has no
+     * counter yet.
+     * @return The merged root counter, for both nodes to keep.
+     */
+    static Chain link(Chain a, Chain b)
+    {
+        if(a == null) return b == null ? new Chain().changed() : b.changed();
+        if(b == null) return a.changed();
+
+        Chain aRoot = a.root(), bRoot = b.root();
+        if(aRoot == bRoot) return aRoot.changed();
+
+        if(aRoot.rank < bRoot.rank)
+        {
+            Chain swap = aRoot;
+            aRoot = bRoot;
+            bRoot = swap;
+        }else if(aRoot.rank == bRoot.rank) aRoot.rank++;
+
+        bRoot.parent = aRoot;
+        return aRoot.changed();
+    }
+
+    /**
+     * @return Whether {@code node} has a cached hash that is still current.
+     */
+    boolean hasHash(Object node)
+    {
+        Chain root = this.root();
+        return root.hashNode == node && root.hashVersion == root.version;
+    }
+
+    /**
+     * @return The hash cached by {@link #cacheHash(Object, int)}, valid only while {@link #hasHash(Object)} says so.
+     */
+    int hash()
+    {
+        return this.root().hash;
+    }
+
+    /**
+     * Caches {@code hash} as the hash of {@code node}, until the next change to any node of the counter.
+     */
+    void cacheHash(Object node, int hash)
+    {
+        Chain root = this.root();
+        root.hashNode = node;
+        root.hash = hash;
+        root.hashVersion = root.version;
+    }
+}
@@ -0,0 +1,85 @@
+package jStructs;
+import java.util.Objects;
+
+/**
+ * The content hash of a chain of values, the same one {@code java.util.List.hashCode} computes: starting from 1, each
+ * value in order multiplies the hash by 31 and adds its own hash. The hash of n values is {@code 31^n} plus each
+ * value's hash times 31 to the power of the amount of values after it, so adding or removing a value at either end,
+ * replacing a value at a known position, or joining two chains, updates it in O(1), without walking the chain.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class ChainHash
+{
+    static final int EMPTY = 1;
+
+    /**
+     * The inverse of 31 modulo 2^32, so multiplying by it undoes a multiplication by 31 that overflowed.
+     */
+    private static final int INVERSE_31 = 0xBDEF7BDF;
+
+    private ChainHash(){}
+
+    /**
+     * @return The hash of a chain hashing to {@code hash}, after {@code value} is appended.
+     */
+    static int append(int hash, Object value)
+    {
+        return 31 * hash + Objects.hashCode(value);
+    }
+
+    /**
+     * @return The hash of a chain hashing to {@code hash}, after a chain of {@code length} values hashing to
+     * {@code appended} is linked after it.
+     */
+    static int concat(int hash, int appended, int length)
+    {
+        return ChainHash.pow31(length) * (hash - 1) + appended;
+    }
+
+    /**
+     * @return The hash of a chain of {@code length} values hashing to {@code hash}, after {@code value} is prepended.
+     */
+    static int prepend(int hash, int length, Object value)
+    {
+        return hash + ChainHash.pow31(length) * (30 + Objects.hashCode(value));
+    }
+
+    /**
+     * @return The hash of a chain of {@code length} values hashing to {@code hash}, after its first value,
+     * {@code value}, is removed.
+     */
+    static int removeFirst(int hash, int length, Object value)
+    {
+        return hash - ChainHash.pow31(length - 1) * (30 + Objects.hashCode(value));
+    }
+
+    /**
+     * @return The hash of a chain hashing to {@code hash}, after its last value, {@code value}, is removed.
+     */
+    static int removeLast(int hash, Object value)
+    {
+        return (hash - Objects.hashCode(value)) * INVERSE_31;
+    }
+
+    /**
+     * @return The hash of a chain hashing to {@code hash}, after the value {@code old}, followed by {@code after} more
+     * values, is replaced with {@code value}.
+     */
+    static int replace(int hash, int after, Object old, Object value)
+    {
+        return hash + ChainHash.pow31(after) * (Objects.hashCode(value) - Objects.hashCode(old));
+    }
+
+    private static int pow31(int exponent)
+    {
+        int result = 1, base = 31;
+
+        for(int e = exponent; e > 0; e >>>= 1)
+        {
+            if((e & 1) != 0) result *= base;
+            base *= base;
+        }
+
+        return result;
+    }
+}
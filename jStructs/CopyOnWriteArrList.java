@@ -0,0 +1,505 @@
+package jStructs;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jStructs.ArrList.Event;
+
+/**
+ * A thread-safe {@code ArrList}. Every mutation copies the backing array and publishes the copy atomically, so reads
+ * never lock and always see a consistent snapshot, while writers are serialized by a lock. It suits lists that are read
+ * far more often than they are changed.
+ * <p>
+ * Its events are the same as {@code ArrList}'s, with the annotated methods taking a {@code CopyOnWriteArrList} as their
+ * first argument. Each event carries the item and index of the mutation that fired it. Events are fired by the
+ * writing thread while it still holds the lock, so they are seen in the same order as the mutations.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class CopyOnWriteArrList<T, T1> {
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Object[] array = EMPTY_ARRAY;
+    private volatile Listeners<T1> listeners = new Listeners<>(null);
+    private volatile EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, CopyOnWriteArrList.class);
+    private static final MethodType ITEM_TYPE = MethodType.methodType(void.class, CopyOnWriteArrList.class, Object.class, int.class);
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AddedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface RemovedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface InvalidIndexEvent{}
+
+    /**
+     * The event object and its handlers, swapped as a whole so readers never see them half updated.
+     */
+    private static final class Listeners<T1>
+    {
+        private final T1 eventClassInstance;
+        private final MethodHandle[] setHandlers, addedHandlers, removedHandlers, invalidIndexHandlers;
+
+        private Listeners(T1 eventClassInstance)
+        {
+            this.eventClassInstance = eventClassInstance;
+            this.setHandlers = EventHandlers.bind(eventClassInstance, SetEvent.class, ITEM_TYPE);
+            this.addedHandlers = EventHandlers.bind(eventClassInstance, AddedEvent.class, ITEM_TYPE);
+            this.removedHandlers = EventHandlers.bind(eventClassInstance, RemovedEvent.class, ITEM_TYPE);
+            this.invalidIndexHandlers = EventHandlers.bind(eventClassInstance, InvalidIndexEvent.class, LIST_TYPE);
+        }
+
+        private MethodHandle[] of(Event e)
+        {
+            switch(e)
+            {
+                case SET:
+                    return this.setHandlers;
+                case ADDED:
+                    return this.addedHandlers;
+                case REMOVED:
+                    return this.removedHandlers;
+                case INVALID_INDEX:
+                    return this.invalidIndexHandlers;
+                default:
+                    return EventHandlers.NONE;
+            }
+        }
+    }
+
+    public static <T, T1> CopyOnWriteArrList<T, T1> from(T[] array)
+    {
+        CopyOnWriteArrList<T, T1> list = new CopyOnWriteArrList<>();
+        list.array = Arrays.copyOf(array, array.length, Object[].class);
+
+        return list;
+    }
+
+    public static <T, T1> CopyOnWriteArrList<T, T1> from(T1 eventInstance)
+    {
+        CopyOnWriteArrList<T, T1> list = new CopyOnWriteArrList<>();
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public static <T, T1> CopyOnWriteArrList<T, T1> from(T[] array, T1 eventInstance)
+    {
+        CopyOnWriteArrList<T, T1> list = CopyOnWriteArrList.from(array);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public void add(T item)
+    {
+        this.lock.lock();
+        try
+        {
+            Object[] array = this.array;
+            Object[] newArray = Arrays.copyOf(array, array.length + 1);
+            Metrics.copied(array.length, Metrics.REFERENCE_BYTES);
+            newArray[array.length] = item;
+
+            this.array = newArray;
+            this.fire(Event.ADDED, item, array.length);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    public void add(int index, T item)
+    {
+        this.lock.lock();
+        try
+        {
+            Object[] array = this.array;
+            Objects.checkIndex(index, array.length + 1);
+
+            Object[] newArray = new Object[array.length + 1];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index, newArray, index + 1, array.length - index);
+            Metrics.copied(array.length, Metrics.REFERENCE_BYTES);
+            newArray[index] = item;
+
+            this.array = newArray;
+            this.fire(Event.ADDED, item, index);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    public void remove()
+    {
+        this.lock.lock();
+        try
+        {
+            Object[] array = this.array;
+            if(array.length == 0)
+            {
+                this.fire(Event.INVALID_INDEX, null, -1);
+                return;
+            }
+
+            this.array = Arrays.copyOf(array, array.length - 1);
+            Metrics.copied(array.length - 1, Metrics.REFERENCE_BYTES);
+            this.fire(Event.REMOVED, array[array.length - 1], array.length - 1);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    public void remove(int index)
+    {
+        this.lock.lock();
+        try
+        {
+            Object[] array = this.array;
+            Objects.checkIndex(index, array.length);
+
+            Object[] newArray = new Object[array.length - 1];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 1, newArray, index, array.length - index - 1);
+            Metrics.copied(array.length - 1, Metrics.REFERENCE_BYTES);
+
+            this.array = newArray;
+            this.fire(Event.REMOVED, array[index], index);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every occurrence of {@code item} with a single copy of the backing array.
+     */
+    public void removeAll(T item)
+    {
+        this.lock.lock();
+        try
+        {
+            Object[] array = this.array, newArray = new Object[array.length];
+            int kept = 0;
+
+            for(Object o : array)
+            {
+                if(!Objects.equals(o, item)) newArray[kept++] = o;
+            }
+            if(kept == array.length) return;
+
+            this.array = Arrays.copyOf(newArray, kept);
+            Metrics.copied(kept, Metrics.REFERENCE_BYTES);
+
+            for(int i = 0, removed = 0; i < array.length; i++)
+            {
+                if(Objects.equals(array[i], item))
+                {
+                    this.fire(Event.REMOVED, array[i], i - removed);
+                    removed++;
+                }
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    public void set(int index, T item)
+    {
+        this.lock.lock();
+        try
+        {
+            Object[] array = this.array;
+            Objects.checkIndex(index, array.length);
+
+            Object[] newArray = array.clone();
+            Metrics.copied(array.length, Metrics.REFERENCE_BYTES);
+            newArray[index] = item;
+
+            this.array = newArray;
+            this.fire(Event.SET, item, index);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<T> get(int index)
+    {
+        Object[] array = this.array;
+        Objects.checkIndex(index, array.length);
+
+        return Optional.ofNullable((T) array[index]);
+    }
+
+    /**
+     * @return The item at {@code index}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(int index)
+    {
+        Object[] array = this.array;
+        Objects.checkIndex(index, array.length);
+
+        return (T) array[index];
+    }
+
+    public boolean contains(T item)
+    {
+        for(Object o : this.array)
+        {
+            if(Objects.equals(o, item)) return true;
+        }
+        return false;
+    }
+
+    public int occurrencesOf(T item)
+    {
+        int occurences = 0;
+
+        for(Object o : this.array)
+        {
+            if(Objects.equals(o, item)) occurences++;
+        }
+
+        return occurences;
+    }
+
+    public int[] indexesOf(T item)
+    {
+        Object[] array = this.array;
+        int[] indexes = new int[array.length];
+        int offset = 0;
+
+        for(int i = 0; i < array.length; i++)
+        {
+            if(Objects.equals(array[i], item)) indexes[offset++] = i;
+        }
+
+        return Arrays.copyOf(indexes, offset);
+    }
+
+    private void fire(Event e, Object item, int index)
+    {
+        if(this.listeners.of(e).length == 0) return;
+
+        EventBus.Channel channel = this.eventChannel;
+        if(channel != null)
+        {
+            channel.publish(e, item, index);
+        }
+        else
+        {
+            this.dispatch(e, item, index);
+        }
+    }
+
+    private void dispatch(Event e, Object item, int index)
+    {
+        MethodHandle[] handlers = this.listeners.of(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                if(e == Event.INVALID_INDEX)
+                {
+                    h.invokeExact(this);
+                }
+                else
+                {
+                    h.invokeExact(this, item, index);
+                }
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    public void clear()
+    {
+        this.lock.lock();
+        try
+        {
+            this.array = EMPTY_ARRAY;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClassInstance The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClassInstance)
+    {
+        this.listeners = new Listeners<>(eventClassInstance);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the mutating call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.lock.lock();
+        try
+        {
+            this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event, item, index));
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return A {@code Spliterator} over the list's current snapshot, split by index range. Later mutations are not
+     * seen by it.
+     */
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(this.array, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Performs {@code action} on every item of the list's current snapshot, in order, without allocating.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action)
+    {
+        for(Object o : this.array)
+        {
+            action.accept((T) o);
+        }
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    public int length()
+    {
+        return this.array.length;
+    }
+
+    /**
+     * @return A copy of the list's current snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toArray()
+    {
+        return (T[]) this.array.clone();
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an ellipsis
+     * once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        //  one snapshot, so the output is consistent while other threads write
+        Object[] array = this.array;
+        Renderer renderer = new Renderer(out, options, Renderer.ARRAY);
+        for(int i = 0; i < array.length && renderer.add(array[i]); i++);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof CopyOnWriteArrList)) return false;
+        CopyOnWriteArrList<?, ?> oList = (CopyOnWriteArrList<?, ?>) o;
+
+        return Arrays.equals(oList.array, this.array) && (oList.listeners.eventClassInstance == this.listeners.eventClassInstance);
+    }
+
+    /**
+     * @return A new list with the same items and event object. No events are fired, since the snapshot is shared.
+     */
+    @Override
+    public Object clone()
+    {
+        CopyOnWriteArrList<T, T1> clone = new CopyOnWriteArrList<>();
+        clone.array = this.array;
+        clone.listeners = this.listeners;
+
+        return clone;
+    }
+}
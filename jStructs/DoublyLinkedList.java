@@ -1,19 +1,40 @@
 package jStructs;
+import java.io.IOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
-import java.lang.reflect.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
  */
 public class DoublyLinkedList<T, T1>
 {
-    private DoublyNode<T> current;
-    private Class<T1> eventClass;
+    private DoublyNode<T> current, head, tail;
+    private int size, modCount, stamp = -1, skipStamp = -1;
+    private int hash = ChainHash.EMPTY, hashLength, hashStamp;
+    private Chain chain;
+    private int chainVersion;
+    private boolean indexed;
+    private SkipIndex<T> skip;
     private T1 eventClassInstance;
+    private MethodHandle[] traverseNextHandlers = EventHandlers.NONE, traversePrevHandlers = EventHandlers.NONE,
+            nullTraverseHandlers = EventHandlers.NONE, setHandlers = EventHandlers.NONE, spliceHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, DoublyLinkedList.class);
+    private static final int WALK_LIMIT = 16;
 
     /**
      * Methods with the {@code TraverseNextEvent} annotation must only have 1 argument, and the argument should be of type
@@ -51,12 +72,22 @@ public class DoublyLinkedList<T, T1>
     @Retention(RetentionPolicy.RUNTIME)
     public @interface SetEvent{}
 
+    /**
+     * Methods with the {@code SpliceEvent} annotation must only have 1 argument, and the argument should be of type
+     * {@code DoublyLinkedList<T, T1>}. If these requirements are not met, the reflection will fail and an error
+     * will be produced.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SpliceEvent{}
+
     public enum Event
     {
         TRAVERSE_NEXT,
         TRAVERSE_PREV,
         NULL_TRAVERSE,
-        SET
+        SET,
+        SPLICE
     }
 
     /**
@@ -90,18 +121,34 @@ public class DoublyLinkedList<T, T1>
      */
     public void traversePrev(int length)
     {
+        if(this.indexed && length > WALK_LIMIT)
+        {
+            int target = this.indexOf(this.current) - length;
+            if(target < 0)
+            {
+                this.fire(Event.NULL_TRAVERSE);
+                return;
+            }
+
+            this.moveTo(this.skip.seek(this.head, target));
+            this.fire(Event.TRAVERSE_PREV);
+            return;
+        }
+
         DoublyNode<T> current = this.current;
         for(int i = 0; i < length; i++)
         {
-            current = current.getPrev().orElse(null);
+            current = current.getPrevOrNull();
             if(current == null)
             {
+                Metrics.traversed(this, i);
                 this.fire(Event.NULL_TRAVERSE);
                 return;
             }
         }
 
-        this.setCurrent(current);
+        Metrics.traversed(this, length);
+        this.moveTo(current);
         this.fire(Event.TRAVERSE_PREV);
     }
 
@@ -111,19 +158,36 @@ public class DoublyLinkedList<T, T1>
      */
     public void traverseNext(int length)
     {
+        if(this.indexed && length > WALK_LIMIT)
+        {
+            int target = this.indexOf(this.current) + length;
+            if(target >= this.length())
+            {
+                this.fire(Event.NULL_TRAVERSE);
+                this.setCurrent(new DoublyNode<>(null));
+                return;
+            }
+
+            this.moveTo(this.skip.seek(this.head, target));
+            this.fire(Event.TRAVERSE_NEXT);
+            return;
+        }
+
         DoublyNode<T> current = this.current;
         for(int i = 0; i < length; i++)
         {
-            current = current.getNext().orElse(null);
+            current = current.getNextOrNull();
             if(current == null)
             {
+                Metrics.traversed(this, i);
                 this.fire(Event.NULL_TRAVERSE);
                 this.setCurrent(new DoublyNode<>(null));
                 return;
             }
         }
 
-        this.setCurrent(current);
+        Metrics.traversed(this, length);
+        this.moveTo(current);
         this.fire(Event.TRAVERSE_NEXT);
 
     }
@@ -141,11 +205,119 @@ public class DoublyLinkedList<T, T1>
         else
         {
             this.current = node;
+            this.stamp = this.modCount - 1;
+            this.skipStamp = this.modCount - 1;
+            this.hashStamp = this.modCount - 1;
         }
 
         this.fire(Event.SET);
     }
 
+    /**
+     * Moves to a node of the same chain, which keeps the cached head, tail and length valid.
+     */
+    private void moveTo(DoublyNode<T> node)
+    {
+        this.current = node;
+        this.fire(Event.SET);
+    }
+
+    /**
+     * Makes the node at {@code index}, counting from the list's first node, the current node. It takes O(log n) while
+     * the list is indexed, and walks from the first node otherwise.
+     * @throws IndexOutOfBoundsException If {@code index} is not within the list.
+     */
+    public void seek(int index)
+    {
+        Objects.checkIndex(index, this.length());
+        this.moveTo(this.nodeAt(index));
+    }
+
+    /**
+     * @return The node at {@code index}, which must be within the list.
+     */
+    private DoublyNode<T> nodeAt(int index)
+    {
+        if(this.indexed) return this.skipIndex().seek(this.head, index);
+
+        DoublyNode<T> node = this.head;
+        for(int i = 0; i < index; i++)
+        {
+            node = node.getNextOrNull();
+        }
+
+        Metrics.traversed(this, index);
+        return node;
+    }
+
+    /**
+     * @return The position of {@code node}, counting from the list's first node, or -1 if it is not in the list. It
+     * takes O(log n) while the list is indexed, and walks from the first node otherwise.
+     */
+    public int indexOf(DoublyNode<T> node)
+    {
+        this.count();
+        if(node == null || node.chain() != this.chain) return -1;
+        if(this.indexed) return this.skipIndex().indexOf(node, this.tail);
+
+        int index = 0;
+        for(DoublyNode<T> n = this.head; n != null; n = n.getNextOrNull(), index++)
+        {
+            if(n == node)
+            {
+                Metrics.traversed(this, index);
+                return index;
+            }
+        }
+
+        Metrics.traversed(this, index);
+        return -1;
+    }
+
+    /**
+     * Turns the positional index on or off. While it is on, the list keeps an indexable skip list over its nodes, so
+     * {@link #seek(int)}, {@link #indexOf(DoublyNode)} and traversing more than a few nodes at once take O(log n)
+     * instead of a walk. The list's own methods update it in O(log n); after its nodes were changed through
+     * {@code DoublyNode}, the list builds it again, in O(n), the next time it is used.
+     * @param indexed {@code true} to index the list, {@code false} to drop the index.
+     */
+    public void setIndexed(boolean indexed)
+    {
+        this.indexed = indexed;
+        this.skip = null;
+        this.skipStamp = this.modCount - 1;
+    }
+
+    public boolean isIndexed()
+    {
+        return this.indexed;
+    }
+
+    /**
+     * @return The skip list over the current chain, built again if the list changed in a way it couldn't follow.
+     */
+    private SkipIndex<T> skipIndex()
+    {
+        this.count();
+
+        if(this.skip == null || this.skipStamp != this.modCount)
+        {
+            this.skip = SkipIndex.of(this.head, this.length());
+            this.skipStamp = this.modCount;
+        }
+
+        return this.skip;
+    }
+
+    /**
+     * @return Whether the skip list is up to date, and so should be updated along with the list.
+     */
+    private boolean skipIsCurrent()
+    {
+        this.sync();
+        return this.skip != null && this.skipStamp == this.modCount;
+    }
+
     /**
      * @return An {@code Optional} containing the current node.
      */
@@ -155,117 +327,796 @@ public class DoublyLinkedList<T, T1>
     }
 
     /**
-     * @return The amount of nodes in the list.
+     * @return The amount of nodes in the list. It is kept up to date by the list's own methods, so it is only counted
+     * again after its nodes were changed through {@code DoublyNode}.
      */
     public int length()
     {
-        if(this.current == null) return 0;
-        DoublyNode<T> current = DoublyNode.startOf(this.current).orElse(null);
-        int length = 1;
+        this.count();
+        return this.size;
+    }
 
-        while((current = current.getNext().orElse(null)) != null)
+    /**
+     * @return An {@code Optional} containing the list's first node.
+     */
+    public Optional<DoublyNode<T>> getHead()
+    {
+        this.count();
+        return Optional.ofNullable(this.head);
+    }
+
+    /**
+     * @return An {@code Optional} containing the list's last node.
+     */
+    public Optional<DoublyNode<T>> getTail()
+    {
+        this.count();
+        return Optional.ofNullable(this.tail);
+    }
+
+    /**
+     * Links a new node holding {@code value} before the list's first node, in O(1). If the list was empty, it also
+     * becomes the current node.
+     */
+    public void addFirst(T value)
+    {
+        this.count();
+        boolean indexCurrent = this.skipIsCurrent();
+        DoublyNode<T> node = new DoublyNode<>(value), head = this.head;
+        boolean hashCurrent = this.hashIsCurrent();
+
+        if(head == null)
         {
-            length++;
-            if(current.getNext().isEmpty()) break;
+            this.tail = node;
+            this.current = node;
+        }
+        else
+        {
+            node.setNext(head);
+        }
+        this.head = node;
+
+        this.size++;
+        this.stamp = this.changed();
+        if(hashCurrent) this.cacheHash(ChainHash.prepend(this.hash, this.hashLength, value), this.hashLength + 1);
+        if(indexCurrent) this.updateSkip(node, 0, true);
+    }
+
+    /**
+     * Links a new node holding {@code value} after the list's last node, in O(1). If the list was empty, it also
+     * becomes the current node.
+     */
+    public void addLast(T value)
+    {
+        this.count();
+        boolean indexCurrent = this.skipIsCurrent();
+        DoublyNode<T> node = new DoublyNode<>(value);
+        boolean hashCurrent = this.hashIsCurrent();
+
+        if(this.tail == null)
+        {
+            this.head = node;
+            this.current = node;
+        }
+        else
+        {
+            this.tail.setNext(node);
+        }
+        this.tail = node;
+
+        this.size++;
+        this.stamp = this.changed();
+        if(hashCurrent) this.cacheHash(ChainHash.append(this.hash, value), this.hashLength + 1);
+        if(indexCurrent) this.updateSkip(node, this.size - 1, true);
+    }
+
+    /**
+     * Unlinks the list's first node. If it was the current node, the current node moves to the next one.
+     * @return An {@code Optional} containing the value of the removed node.
+     */
+    public Optional<T> removeFirst()
+    {
+        this.count();
+        DoublyNode<T> head = this.head;
+        if(head == null) return Optional.empty();
+        boolean indexCurrent = this.skipIsCurrent(), hashCurrent = this.hashIsCurrent();
+
+        this.head = head.getNextOrNull();
+        head.setNext(null);
+
+        if(this.head == null) this.tail = null;
+        if(this.current == head) this.current = this.head;
+
+        this.size--;
+        this.stamp = this.changed();
+        if(hashCurrent) this.cacheHash(ChainHash.removeFirst(this.hash, this.hashLength, head.getOrNull()), this.hashLength - 1);
+        if(indexCurrent) this.updateSkip(head, 0, false);
+        return head.get();
+    }
+
+    /**
+     * Unlinks the list's last node. If it was the current node, the current node moves to the previous one.
+     * @return An {@code Optional} containing the value of the removed node.
+     */
+    public Optional<T> removeLast()
+    {
+        this.count();
+        DoublyNode<T> tail = this.tail;
+        if(tail == null) return Optional.empty();
+        boolean indexCurrent = this.skipIsCurrent(), hashCurrent = this.hashIsCurrent();
+
+        this.tail = tail.getPrevOrNull();
+        tail.setPrev(null);
+
+        if(this.tail == null) this.head = null;
+        if(this.current == tail) this.current = this.tail;
+
+        this.size--;
+        this.stamp = this.changed();
+        if(hashCurrent) this.cacheHash(ChainHash.removeLast(this.hash, tail.getOrNull()), this.hashLength - 1);
+        if(indexCurrent) this.updateSkip(tail, this.size, false);
+        return tail.get();
+    }
+
+    /**
+     * Links every node of {@code other} after this list's last node, in O(1), leaving {@code other} empty. It fires a
+     * single {@code SpliceEvent}.
+     * @see #splice(DoublyNode, DoublyLinkedList)
+     */
+    public void concat(DoublyLinkedList<T, ?> other)
+    {
+        this.count();
+        this.splice(this.tail, other);
+    }
+
+    /**
+     * Moves every node of {@code other} into this list, right after {@code at}, or before the list's first node if
+     * {@code at} is {@code null}, leaving {@code other} empty. Only the nodes at the ends are relinked, so it takes O(1)
+     * however long the lists are, and it fires a single {@code SpliceEvent} instead of one per node. Only a list whose
+     * nodes were changed through {@code DoublyNode} is walked first, to count it again. If this list was empty,
+     * {@code other}'s first node becomes the current node.
+     * <p>
+     * Unless {@code at} is the list's last node, it is looked up with {@link #indexOf(DoublyNode)} first, so a node of
+     * another chain is rejected in O(1), and any other one costs O(log n) while the list is indexed, or a walk to it.
+     * The positional index, if any, is built again the next time it is used.
+     * @param at A node of this list, or {@code null}.
+     * @throws IllegalArgumentException If {@code other} is this list, or if {@code at} is not in the list.
+     */
+    public void splice(DoublyNode<T> at, DoublyLinkedList<T, ?> other)
+    {
+        if(other == this) throw new IllegalArgumentException("a list can't be spliced into itself");
+
+        this.count();
+        other.count();
+        DoublyNode<T> first = other.head, last = other.tail, head = this.head;
+        if(at != null && at != this.tail && this.indexOf(at) < 0)
+        {
+            throw new IllegalArgumentException("the node is not in the list");
+        }
+        if(first == null) return;
+
+        //  the hash survives when one list ends up in front of the other as a whole
+        boolean hashCurrent = this.hashIsCurrent() && other.hashIsCurrent() && (at == null || at == this.tail);
+        int hash = at == null ? ChainHash.concat(other.hash, this.hash, this.hashLength)
+                : ChainHash.concat(this.hash, other.hash, other.hashLength);
+        int hashLength = this.hashLength + other.hashLength;
+
+        if(at == null)
+        {
+            if(head != null) last.setNext(head);
+            this.head = first;
+        }
+        else
+        {
+            DoublyNode<T> next = at.getNextOrNull();
+            at.setNext(first);
+            if(next != null) last.setNext(next);
+        }
+
+        if(at == this.tail) this.tail = last;
+        if(head == null) this.current = first;
+
+        this.size += other.size;
+        this.stamp = this.changed();
+        this.skip = null;
+        if(hashCurrent) this.cacheHash(hash, hashLength);
+        other.clearNodes();
+
+        this.fire(Event.SPLICE);
+    }
+
+    /**
+     * Cuts the list in two before {@code node}. This list keeps the nodes before it, and its last one becomes the current
+     * node. The returned list, which has this list's event object and {@code EventBus}, holds {@code node}, as its
+     * current node, and every node after it. It fires a single {@code SpliceEvent}, on this list.
+     * <p>
+     * {@code node} is looked up with {@link #indexOf(DoublyNode)} first, which takes O(log n) while the list is indexed,
+     * or a walk to it otherwise; the relinking itself is O(1). The two lists keep sharing their nodes' change counter,
+     * so changing one of them makes the other count its nodes again the next time it needs them.
+     * @param node A node of this list.
+     * @return A new list with the nodes from {@code node} to the end.
+     * @throws IllegalArgumentException If {@code node} is not in the list.
+     */
+    public DoublyLinkedList<T, T1> splitAt(DoublyNode<T> node)
+    {
+        Objects.requireNonNull(node);
+
+        int index = this.indexOf(node);
+        if(index < 0) throw new IllegalArgumentException("the node is not in the list");
+        DoublyNode<T> prev = node.getPrevOrNull();
+
+        DoublyLinkedList<T, T1> rest = new DoublyLinkedList<>();
+        rest.setEventClass(this.eventClassInstance);
+        if(this.eventChannel != null) rest.setEventBus(this.eventChannel.bus());
+        rest.indexed = this.indexed;
+
+        if(prev != null) prev.setNext(null);
+
+        rest.head = node;
+        rest.tail = this.tail;
+        rest.current = node;
+        rest.size = this.size - index;
+        rest.stamp = rest.modCount;
+        rest.track();
+        if(prev == null && this.hashIsCurrent()) rest.cacheHash(this.hash, this.hashLength);
+        else rest.hashStamp = rest.modCount - 1;
+
+        if(prev == null)
+        {
+            this.clearNodes();
+        }
+        else
+        {
+            this.tail = prev;
+            this.current = prev;
+            this.size = index;
+            this.stamp = this.changed();
+            this.skip = null;
+        }
+
+        this.fire(Event.SPLICE);
+        return rest;
+    }
+
+    /**
+     * Forgets every node, leaving the list empty without relinking them. Its current node becomes a new
+     * {@code DoublyNode<>(null)}, like after traversing off its end.
+     */
+    private void clearNodes()
+    {
+        this.head = null;
+        this.tail = null;
+        this.current = new DoublyNode<>(null);
+        this.size = 0;
+        this.stamp = this.changed();
+        this.skip = null;
+        this.cacheHash(ChainHash.EMPTY, 0);
+    }
+
+    /**
+     * @return A view of the nodes from {@code first} to {@code last}, both included, made in O(1).
+     * @see SubList
+     */
+    public SubList<T> subList(DoublyNode<T> first, DoublyNode<T> last)
+    {
+        return new SubList<>(Objects.requireNonNull(first), Objects.requireNonNull(last));
+    }
+
+    /**
+     * @return A view of the nodes from {@code fromIndex}, included, to {@code toIndex}, excluded. Finding them takes
+     * O(log n) while the list is indexed, and walks from the first node otherwise.
+     * @throws IndexOutOfBoundsException If the range is not within the list.
+     * @see SubList
+     */
+    public SubList<T> subList(int fromIndex, int toIndex)
+    {
+        Objects.checkFromToIndex(fromIndex, toIndex, this.length());
+        if(fromIndex == toIndex) return new SubList<>(null, null);
+
+        DoublyNode<T> first = this.nodeAt(fromIndex), last = first;
+        if(this.indexed)
+        {
+            last = this.nodeAt(toIndex - 1);
+        }
+        else
+        {
+            for(int i = fromIndex + 1; i < toIndex; i++)
+            {
+                last = last.getNextOrNull();
+            }
+
+            Metrics.traversed(this, toIndex - fromIndex - 1);
         }
 
-        return length;
+        return new SubList<>(first, last);
     }
 
+    /**
+     * Sets the value of the current node. Unlike {@code DoublyNode.set}, it keeps the list's cached hash current,
+     * updating it in O(1) when the node is first or last, or the list is indexed.
+     */
+    public void set(T value)
+    {
+        DoublyNode<T> current = this.current;
+        this.count();
+
+        if(this.hashIsCurrent())
+        {
+            int index = current == this.head ? 0 : current == this.tail ? this.hashLength - 1
+                    : this.skipIsCurrent() ? this.skip.indexOf(current, this.tail) : -1;
+
+            if(index < 0) this.hashStamp = this.modCount - 1;
+            else this.hash = ChainHash.replace(this.hash, this.hashLength - 1 - index, current.getOrNull(), value);
+        }
+
+        current.set(value);
+        this.track();
+    }
+
+    private boolean hashIsCurrent()
+    {
+        this.sync();
+        return this.hashStamp == this.modCount;
+    }
+
+    /**
+     * Caches {@code hash} as the hash of the list's {@code length} values, until the list changes in a way it can't
+     * follow.
+     */
+    private void cacheHash(int hash, int length)
+    {
+        this.hash = hash;
+        this.hashLength = length;
+        this.hashStamp = this.modCount;
+    }
+
+    /**
+     * Tells the skip list about a node the list linked in or unlinked at {@code index}, keeping it current.
+     */
+    private void updateSkip(DoublyNode<T> node, int index, boolean inserted)
+    {
+        if(inserted)
+        {
+            this.skip.inserted(node, index);
+        }
+        else
+        {
+            this.skip.removed(node, index);
+        }
+
+        this.skipStamp = this.modCount;
+    }
+
+    /**
+     * Drops the list's cached head, tail, length, hash and index if its nodes were relinked or given new values by
+     * anything but the list itself, such as {@code DoublyNode.setNext} or another list on the same chain. The nodes'
+     * shared {@code Chain} counter tells it in O(1).
+     */
+    private void sync()
+    {
+        Chain chain = this.current == null ? null : this.current.chain();
+
+        if(chain != this.chain || (chain != null && chain.version() != this.chainVersion))
+        {
+            this.modCount++;
+            this.track();
+        }
+    }
+
+    /**
+     * Records the current version of the list's nodes' counter, after the list changed them itself.
+     */
+    private void track()
+    {
+        this.chain = this.current == null ? null : this.current.chain();
+        this.chainVersion = this.chain == null ? 0 : this.chain.version();
+    }
+
+    /**
+     * @return The new stamp of the list, after the list changed its own nodes.
+     */
+    private int changed()
+    {
+        this.track();
+        return ++this.modCount;
+    }
+
+    /**
+     * Counts the list again if its nodes changed since it was last counted.
+     */
+    private void count()
+    {
+        this.sync();
+        if(this.stamp == this.modCount) return;
+
+        DoublyNode<T> head = null, tail = null;
+        int size = 0;
+
+        if(this.current != null)
+        {
+            head = DoublyNode.startOfOrNull(this.current);
+            size = 1;
+
+            for(tail = head; tail.getNextOrNull() != null; tail = tail.getNextOrNull())
+            {
+                size++;
+            }
+        }
+
+        Metrics.traversed(this, size);
+        this.head = head;
+        this.tail = tail;
+        this.size = size;
+        this.stamp = this.modCount;
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClass The event object, or {@code null} to stop firing events.
+     */
     public void setEventClass(T1 eventClass)
     {
         this.eventClassInstance = eventClass;
-        this.eventClass = (Class<T1>) eventClass.getClass();
+
+        this.traverseNextHandlers = EventHandlers.bind(eventClass, TraverseNextEvent.class, LIST_TYPE);
+        this.traversePrevHandlers = EventHandlers.bind(eventClass, TraversePrevEvent.class, LIST_TYPE);
+        this.nullTraverseHandlers = EventHandlers.bind(eventClass, NullTraverseEvent.class, LIST_TYPE);
+        this.setHandlers = EventHandlers.bind(eventClass, SetEvent.class, LIST_TYPE);
+        this.spliceHandlers = EventHandlers.bind(eventClass, SpliceEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the traversing call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event));
     }
 
     public void fire(Event e)
     {
-        if(this.eventClassInstance == null) return;
-        Method[] methods = this.eventClass.getDeclaredMethods();
+        if(this.handlersOf(e).length == 0) return;
 
-        for(Method m : methods)
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, null, 0);
+        }
+        else
         {
-            switch(e)
+            this.dispatch(e);
+        }
+    }
+
+    private void dispatch(Event e)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
             {
-                case NULL_TRAVERSE:
-                    if(m.getDeclaredAnnotation(NullTraverseEvent.class) != null && m.getParameterCount() == 1)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        }catch(Exception ex)
-                        {
-                            ex.printStackTrace();
-                        }
-                    }
-                    break;
-                case TRAVERSE_NEXT:
-                    if(m.getDeclaredAnnotation(TraverseNextEvent.class) != null && m.getParameterCount() == 1)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        }catch(Exception ex)
-                        {
-                            ex.printStackTrace();
-                        }
-                    }
-                    break;
-                case TRAVERSE_PREV:
-                    if(m.getDeclaredAnnotation(TraversePrevEvent.class) != null && m.getParameterCount() == 1)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        }catch(Exception ex)
-                        {
-                            ex.printStackTrace();
-                        }
-                    }
-                    break;
-                case SET:
-                    if(m.getDeclaredAnnotation(SetEvent.class) != null && m.getParameterCount() == 1)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        }catch(Exception ex)
-                        {
-                            ex.printStackTrace();
-                        }
-                    }
-                    break;
+                h.invokeExact(this);
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
             }
         }
 
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case NULL_TRAVERSE:
+                return this.nullTraverseHandlers;
+            case TRAVERSE_NEXT:
+                return this.traverseNextHandlers;
+            case TRAVERSE_PREV:
+                return this.traversePrevHandlers;
+            case SET:
+                return this.setHandlers;
+            case SPLICE:
+                return this.spliceHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    /**
+     * @return A {@code Spliterator} over every value of the list, from its first node to its last. It splits by copying
+     * batches of values into arrays, so parallel streams only pay for walking the list once.
+     */
+    public Spliterator<T> spliterator()
+    {
+        Iterator<T> values = new Iterator<>()
+        {
+            private DoublyNode<T> next = DoublyLinkedList.this.first();
+
+            public boolean hasNext()
+            {
+                return this.next != null;
+            }
+
+            public T next()
+            {
+                if(this.next == null) throw new NoSuchElementException();
+
+                T value = this.next.getOrNull();
+                this.next = this.next.getNextOrNull();
+
+                return value;
+            }
+        };
+
+        return Spliterators.spliterator(values, this.length(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Performs {@code action} on every value of the list, from its first node to its last, without allocating.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        for(DoublyNode<T> node = this.first(); node != null; node = node.getNextOrNull())
+        {
+            action.accept(node.getOrNull());
+        }
+    }
+
+    /**
+     * @return A new {@code Cursor} on the list's first node.
+     */
+    public Cursor<T> cursor()
+    {
+        return new Cursor<T>().reset(this.first());
+    }
+
+    /**
+     * A reusable position in a chain of {@code DoublyNode}s. Moving it allocates nothing, and {@link #reset(DoublyNode)}
+     * lets a single cursor walk any amount of chains.
+     */
+    public static final class Cursor<T>
+    {
+        private DoublyNode<T> node;
+
+        /**
+         * Moves the cursor so the next call to {@link #next()} returns the value of {@code node}.
+         * @return This cursor.
+         */
+        public Cursor<T> reset(DoublyNode<T> node)
+        {
+            this.node = node;
+            return this;
+        }
+
+        public boolean hasNext()
+        {
+            return this.node != null;
+        }
+
+        /**
+         * @return The value of the node the cursor is on, moving it to the next node.
+         */
+        public T next()
+        {
+            if(this.node == null) throw new NoSuchElementException();
+
+            T value = this.node.getOrNull();
+            this.node = this.node.getNextOrNull();
+
+            return value;
+        }
+
+        public boolean hasPrev()
+        {
+            return this.node != null && this.node.getPrevOrNull() != null;
+        }
+
+        /**
+         * @return The value of the node before the one the cursor is on, moving it to that node.
+         */
+        public T prev()
+        {
+            if(!this.hasPrev()) throw new NoSuchElementException();
+
+            this.node = this.node.getPrevOrNull();
+            return this.node.getOrNull();
+        }
+    }
+
+    /**
+     * A view of a run of linked nodes, from a first node to a last one. It holds only its two ends, so making one takes
+     * O(1), and it reads the nodes as they are linked when it is used: relinking them changes what it sees. If the last
+     * node can't be reached from the first, it runs to the end of the chain.
+     */
+    public static final class SubList<T>
+    {
+        private final DoublyNode<T> first, last;
+
+        private SubList(DoublyNode<T> first, DoublyNode<T> last)
+        {
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * @return An {@code Optional} containing the view's first node, or an empty one if the view is empty.
+         */
+        public Optional<DoublyNode<T>> getFirst()
+        {
+            return Optional.ofNullable(this.first);
+        }
+
+        /**
+         * @return An {@code Optional} containing the view's last node, or an empty one if the view is empty.
+         */
+        public Optional<DoublyNode<T>> getLast()
+        {
+            return Optional.ofNullable(this.last);
+        }
+
+        /**
+         * @return The amount of nodes in the view. It walks them.
+         */
+        public int length()
+        {
+            int length = 0;
+            for(DoublyNode<T> node = this.first; node != null; node = this.after(node))
+            {
+                length++;
+            }
+
+            Metrics.traversed(this, length);
+            return length;
+        }
+
+        /**
+         * Performs {@code action} on every value of the view, from its first node to its last, without allocating.
+         */
+        public void forEach(Consumer<? super T> action)
+        {
+            for(DoublyNode<T> node = this.first; node != null; node = this.after(node))
+            {
+                action.accept(node.getOrNull());
+            }
+        }
+
+        /**
+         * Writes the values of the view to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+         * {@code limit} of them.
+         */
+        public void writeTo(Appendable out, int limit) throws IOException
+        {
+            this.writeTo(out, RenderOptions.limit(limit));
+        }
+
+        /**
+         * Writes the values of the view to {@code out} as {@link #toString()} does, one at a time, stopping with an
+         * ellipsis once a limit of {@code options} is reached.
+         */
+        public void writeTo(Appendable out, RenderOptions options) throws IOException
+        {
+            Renderer renderer = new Renderer(out, options, Renderer.DOUBLY);
+            for(DoublyNode<T> node = this.first; node != null && renderer.add(node.getOrNull()); node = this.after(node));
+            renderer.finish();
+        }
+
+        /**
+         * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+         */
+        public String render(RenderOptions options)
+        {
+            return Renderer.render(this::writeTo, options);
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.render(RenderOptions.DEFAULT);
+        }
+
+        private DoublyNode<T> after(DoublyNode<T> node)
+        {
+            return node == this.last ? null : node.getNextOrNull();
+        }
+    }
+
+    private DoublyNode<T> first()
+    {
+        this.count();
+        return this.head;
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an
+     * ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        if(this.current == null) new Renderer(out, options, Renderer.DOUBLY).finish();
+        else this.current.writeTo(out, options);
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
     }
 
     @Override
     public String toString()
     {
-        if(this.current == null) return "{}";
-        return this.current.toString();
+        return this.render(RenderOptions.DEFAULT);
     }
 
+    /**
+     * @return The content hash of the list's values, as {@code DoublyNode.hashCode} computes it. The list caches it and
+     * keeps it up to date through its own methods, so it is O(1) unless its nodes were changed through
+     * {@code DoublyNode}.
+     */
     @Override
     public int hashCode()
     {
-        return this.length();
+        if(this.hashIsCurrent()) return this.hash;
+
+        int hash = ChainHash.EMPTY, length = 0;
+        for(DoublyNode<T> node = this.first(); node != null; node = node.getNextOrNull())
+        {
+            hash = ChainHash.append(hash, node.getOrNull());
+            length++;
+        }
+
+        Metrics.traversed(this, length);
+        this.cacheHash(hash, length);
+        return hash;
     }
 
+    /**
+     * @return Whether {@code o} is a {@code DoublyLinkedList} holding equal values in the same order. Lists with
+     * different hashes or lengths are told apart without comparing values.
+     */
     @Override
     public boolean equals(Object o)
     {
         if(!(o instanceof DoublyLinkedList)) return false;
         if(this.current == null) return false;
 
-        return ((DoublyLinkedList<?, ?>) o).getCurrent().equals(this.current);
+        DoublyLinkedList<?, ?> oList = (DoublyLinkedList<?, ?>) o;
+        if(this.hashCode() != oList.hashCode() || this.hashLength != oList.hashLength) return false;
+
+        return this.first().equals(oList.first());
     }
 
     @Override
     public Object clone()
     {
-        return DoublyLinkedList.from(this.getCurrent().orElse(null), this.eventClassInstance);
+        return DoublyLinkedList.from(this.current, this.eventClassInstance);
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package jStructs;
+import java.io.IOException;
 import javax.swing.text.html.Option;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -11,64 +13,110 @@ public class DoublyNode<T>
     private DoublyNode<T> next, prev;
     private T value;
 
+    /**
+     * The change counter this node shares with the nodes it was linked to, or {@code null} until it is first linked.
+     */
+    private Chain chain;
+
     public DoublyNode(T value)
     {
-        this.set(value);
+        this.value = value;
     }
 
     public DoublyNode(DoublyNode<T> prev, T value)
     {
+        this.value = value;
         this.setPrev(prev);
-        this.set(value);
     }
 
     public static <T> Optional<DoublyNode<T>> endOf(DoublyNode<T> node)
     {
-        if(node.next == null)
-        {
-            return Optional.of(node);
-        }
+        return Optional.ofNullable(DoublyNode.endOfOrNull(node));
+    }
 
+    public static <T> Optional<DoublyNode<T>> startOf(DoublyNode<T> node)
+    {
+        return Optional.ofNullable(DoublyNode.startOfOrNull(node));
+    }
+
+    /**
+     * @return The last node of the chain {@code node} is in. Unlike {@link #endOf(DoublyNode)}, it allocates nothing.
+     */
+    public static <T> DoublyNode<T> endOfOrNull(DoublyNode<T> node)
+    {
         DoublyNode<T> current = node;
 
-        while((current = current.next) != null)
+        while(current.next != null)
         {
-            if(current.next == null) break;
+            current = current.next;
         }
 
-        return Optional.ofNullable(current);
+        return current;
     }
 
-    public static <T> Optional<DoublyNode<T>> startOf(DoublyNode<T> node)
+    /**
+     * @return The first node of the chain {@code node} is in. Unlike {@link #startOf(DoublyNode)}, it allocates nothing.
+     */
+    public static <T> DoublyNode<T> startOfOrNull(DoublyNode<T> node)
     {
-        if(node.prev == null)
-        {
-            return Optional.ofNullable(node);
-        }
         DoublyNode<T> current = node;
 
-        while((current = current.prev) != null)
+        while(current.prev != null)
         {
-            if(current.prev == null) break;
+            current = current.prev;
         }
 
-        return Optional.ofNullable(current);
+        return current;
     }
 
     public void set(T value)
     {
         this.value = value;
+        if(this.chain != null) this.chain = this.chain.changed();
     }
 
+    /**
+     * Links {@code next} after this node, on both sides. If {@code next} is {@code null}, this node and the one after it
+     * are unlinked instead.
+     */
     public void setNext(DoublyNode<T> next)
     {
-        next.prev = this;
+        if(next != null) next.prev = this;
+        else if(this.next != null) this.next.prev = null;
+
         this.next = next;
+        this.linked(next);
     }
+
+    /**
+     * Links {@code prev} before this node, on both sides. If {@code prev} is {@code null}, this node and the one before it
+     * are unlinked instead.
+     */
     public void setPrev(DoublyNode<T> prev)
     {
-        prev.next = this;
+        if(prev != null) prev.next = this;
+        else if(this.prev != null) this.prev.next = null;
+
         this.prev = prev;
+        this.linked(prev);
+    }
+
+    /**
+     * Bumps the change counter of this node's chain after a link to {@code node} changed, merging it with that node's
+     * counter if it isn't {@code null}.
+     */
+    private void linked(DoublyNode<T> node)
+    {
+        if(node != null) this.chain = node.chain = Chain.link(this.chain, node.chain);
+        else if(this.chain != null) this.chain = this.chain.changed();
+    }
+
+    /**
+     * @return The root of the change counter this node shares with its chain, made on first use.
+     */
+    Chain chain()
+    {
+        return this.chain = this.chain == null ? new Chain() : this.chain.root();
     }
 
     public Optional<T> get()
@@ -86,50 +134,93 @@ public class DoublyNode<T>
         return Optional.ofNullable(this.next);
     }
 
-    @Override
-    public String toString()
+    /**
+     * @return The data stored in this node, or {@code null}. Unlike {@link #get()}, it allocates nothing.
+     */
+    public T getOrNull()
     {
-        DoublyNode<T> start = DoublyNode.startOf(this).orElse(null);
-        String stringed = "{" + start.value.toString() + "}";
-        if(start.next != null) stringed += " <-> ";
+        return this.value;
+    }
 
-        while((start = start.next) != null)
-        {
-            stringed += "{" + start.value + "}";
-            if(start.next != null) stringed += " <-> ";
-        }
+    /**
+     * @return The previous node, or {@code null}. Unlike {@link #getPrev()}, it allocates nothing.
+     */
+    public DoublyNode<T> getPrevOrNull()
+    {
+        return this.prev;
+    }
+
+    /**
+     * @return The next node, or {@code null}. Unlike {@link #getNext()}, it allocates nothing.
+     */
+    public DoublyNode<T> getNextOrNull()
+    {
+        return this.next;
+    }
+
+    /**
+     * Writes the values of this node's whole chain to {@code out} as {@link #toString()} does, stopping with an
+     * ellipsis after {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values of this node's whole chain to {@code out} as {@link #toString()} does, one at a time, stopping
+     * with an ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.DOUBLY);
+        for(DoublyNode<T> node = DoublyNode.startOfOrNull(this); node != null && renderer.add(node.value); node = node.next);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
 
-        return stringed;
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
     }
 
+    /**
+     * @return Whether {@code o} is a {@code DoublyNode} whose whole chain holds equal values in the same order as this
+     * one's. It stops at the first difference.
+     */
     @Override
     public boolean equals(Object o)
     {
+        if(this == o) return true;
         if(!(o instanceof DoublyNode))
         {
             return false;
         }
-        if(!(((DoublyNode<?>) o).value.equals(this.value)))
-        {
-            return false;
-        }
-        if(((DoublyNode<T>) o).getNext().isPresent())
-        {
-            Optional<DoublyNode<T>> thisOptional = DoublyNode.startOf(this), oOptional = DoublyNode.startOf(((DoublyNode<T>) o).getNext().get());
-            DoublyNode<T> thisNext = thisOptional.orElse(null), oNext = oOptional.orElse(null);
 
-            return thisNext.equals(oNext);
-        }
-        else
+        DoublyNode<?> thisCurrent = DoublyNode.startOfOrNull(this), oCurrent = DoublyNode.startOfOrNull((DoublyNode<?>) o);
+        for(; thisCurrent != null && oCurrent != null; thisCurrent = thisCurrent.next, oCurrent = oCurrent.next)
         {
-            return true;
+            if(!Objects.equals(thisCurrent.value, oCurrent.value))
+            {
+                return false;
+            }
         }
+
+        return thisCurrent == null && oCurrent == null;
     }
 
     @Override
     public Object clone()
     {
-        DoublyNode<T> start = DoublyNode.startOf(this).orElse(null);
+        DoublyNode<T> start = DoublyNode.startOfOrNull(this);
         DoublyNode<T> clone = new DoublyNode<>(start.value);
 
         while((start = start.next) != null)
@@ -138,13 +229,28 @@ public class DoublyNode<T>
             clone = clone.next;
         }
 
-        return DoublyNode.startOf(clone).orElse(null);
+        return DoublyNode.startOfOrNull(clone);
     }
 
+    /**
+     * @return The content hash of the values of this node's whole chain, from its first node, computed like
+     * {@code java.util.List.hashCode}. Once the node was linked, the hash is cached on its chain's change counter until
+     * any node of the chain changes, so asking again takes O(1).
+     */
     @Override
     public int hashCode()
     {
-        return DoublyLinkedList.from(this).length();
-    }
+        if(this.chain != null && this.chain.hasHash(this)) return this.chain.hash();
 
+        int hash = ChainHash.EMPTY, length = 0;
+        for(DoublyNode<T> node = DoublyNode.startOfOrNull(this); node != null; node = node.next)
+        {
+            hash = ChainHash.append(hash, node.value);
+            length++;
+        }
+
+        Metrics.traversed(this, length);
+        if(this.chain != null) this.chain.cacheHash(this, hash);
+        return hash;
+    }
 }
\ No newline at end of file
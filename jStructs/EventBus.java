@@ -0,0 +1,399 @@
+package jStructs;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous event bus. Structures using a bus publish their events into a bounded, lock-free ring buffer and
+ * return right away, while a dedicated consumer thread drains the buffer and calls the event methods. Events
+ * published by the same structure are delivered in the order they were published.
+ * <p>
+ * A bus can be shared by any amount of structures, see {@code setEventBus} on {@code ArrList},
+ * {@code SinglyLinkedList} and {@code DoublyLinkedList}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class EventBus implements AutoCloseable
+{
+    /**
+     * What a structure does when it publishes an event and the bus's buffer is full.
+     */
+    public enum Backpressure
+    {
+        /**
+         * Waits until the consumer frees a slot, spinning briefly and then parking. An event method that publishes from
+         * the consumer thread can't wait for itself, so there the events ahead in the buffer are delivered first, right
+         * away, to make room.
+         */
+        BLOCK,
+        /**
+         * Discards the new event.
+         */
+        DROP,
+        /**
+         * Keeps only the structure's latest event until the consumer catches up, discarding the ones in between.
+         */
+        COALESCE
+    }
+
+    /**
+     * Receives the events of a single structure on the consumer thread.
+     */
+    interface Sink
+    {
+        void deliver(Object event, Object item, int index);
+    }
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final int BLOCK_SPINS = 100;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final Channel[] channels;
+    private final Object[] events, items;
+    private final int[] indexes;
+    private final AtomicLong tail = new AtomicLong();
+    private final Backpressure backpressure;
+    private final Queue<Channel> coalesced = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Queue<Thread> blocked = new ConcurrentLinkedQueue<>();
+    private final Thread consumer;
+
+    private volatile long head;
+    private volatile boolean idle, closed;
+
+    public EventBus()
+    {
+        this(DEFAULT_CAPACITY, Backpressure.BLOCK);
+    }
+
+    /**
+     * @param capacity The amount of events the buffer can hold, rounded up to a power of two.
+     * @param backpressure What to do when the buffer is full.
+     */
+    public EventBus(int capacity, Backpressure backpressure)
+    {
+        if(capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.channels = new Channel[size];
+        this.events = new Object[size];
+        this.items = new Object[size];
+        this.indexes = new int[size];
+        this.backpressure = backpressure;
+
+        for(int i = 0; i < size; i++)
+        {
+            this.sequences.set(i, i);
+        }
+
+        this.consumer = new Thread(this::consume, "jStructs-event-bus");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public Backpressure getBackpressure()
+    {
+        return this.backpressure;
+    }
+
+    /**
+     * @return The amount of events discarded because the buffer was full.
+     */
+    public long droppedCount()
+    {
+        return this.dropped.get();
+    }
+
+    /**
+     * Delivers every event published so far, then stops the consumer thread. Events published afterwards are
+     * discarded.
+     */
+    @Override
+    public void close()
+    {
+        this.closed = true;
+        LockSupport.unpark(this.consumer);
+        this.releaseBlocked();
+
+        if(Thread.currentThread() == this.consumer) return;
+
+        boolean interrupted = false;
+        while(this.consumer.isAlive())
+        {
+            try
+            {
+                this.consumer.join();
+            }catch(InterruptedException ex)
+            {
+                interrupted = true;
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+    }
+
+    Channel channel(Sink sink)
+    {
+        return new Channel(sink);
+    }
+
+    /**
+     * The connection between one structure and the bus. Only the structure's own thread publishes through it.
+     */
+    final class Channel
+    {
+        private final Sink sink;
+        private final AtomicReference<Pending> pending = new AtomicReference<>();
+
+        private Channel(Sink sink)
+        {
+            this.sink = sink;
+        }
+
+        /**
+         * @return The bus this channel publishes to.
+         */
+        EventBus bus()
+        {
+            return EventBus.this;
+        }
+
+        void publish(Object event, Object item, int index)
+        {
+            if(EventBus.this.closed)
+            {
+                EventBus.this.dropped.incrementAndGet();
+                return;
+            }
+
+            int spins = 0;
+            while(true)
+            {
+                Pending p = this.pending.get();
+
+                if(p != null)
+                {
+                    //  an event is already waiting, later ones have to wait behind it to keep the order
+                    if(this.pending.compareAndSet(p, new Pending(event, item, index, p.position))) return;
+                    continue;
+                }
+
+                long position = EventBus.this.offer(this, event, item, index);
+                if(position < 0) return;
+
+                switch(EventBus.this.backpressure)
+                {
+                    case DROP:
+                        EventBus.this.dropped.incrementAndGet();
+                        return;
+                    case COALESCE:
+                        if(this.pending.compareAndSet(null, new Pending(event, item, index, position)))
+                        {
+                            EventBus.this.coalesced.add(this);
+                            EventBus.this.wake();
+                            return;
+                        }
+                        break;
+                    case BLOCK:
+                        if(EventBus.this.closed)
+                        {
+                            EventBus.this.dropped.incrementAndGet();
+                            return;
+                        }
+                        if(Thread.currentThread() == EventBus.this.consumer)
+                        {
+                            //  nothing else would ever free a slot; the events ahead go first, so the order holds
+                            if(EventBus.this.drain() == 0) Thread.onSpinWait();
+                            break;
+                        }
+                        EventBus.this.wake();
+                        if(++spins < BLOCK_SPINS) Thread.onSpinWait();
+                        else EventBus.this.awaitSlot();
+                        break;
+                }
+            }
+        }
+    }
+
+    private static final class Pending
+    {
+        private final Object event, item;
+        private final int index;
+        private final long position;
+
+        private Pending(Object event, Object item, int index, long position)
+        {
+            this.event = event;
+            this.item = item;
+            this.index = index;
+            this.position = position;
+        }
+    }
+
+    /**
+     * @return {@code -1} if the event was written into the buffer, otherwise the buffer position it was refused at.
+     */
+    private long offer(Channel channel, Object event, Object item, int index)
+    {
+        long position = this.tail.get();
+
+        while(true)
+        {
+            int slot = (int) (position & this.mask);
+            long difference = this.sequences.get(slot) - position;
+
+            if(difference == 0)
+            {
+                if(this.tail.compareAndSet(position, position + 1))
+                {
+                    this.channels[slot] = channel;
+                    this.events[slot] = event;
+                    this.items[slot] = item;
+                    this.indexes[slot] = index;
+                    this.sequences.set(slot, position + 1);
+
+                    this.wake();
+                    return -1;
+                }
+                position = this.tail.get();
+            }
+            else if(difference < 0)
+            {
+                return position;
+            }
+            else
+            {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    private void wake()
+    {
+        if(this.idle) LockSupport.unpark(this.consumer);
+    }
+
+    /**
+     * Parks the publishing thread until the consumer frees a slot or the bus is closed. The park is also timed, as a
+     * safety net.
+     */
+    private void awaitSlot()
+    {
+        Thread thread = Thread.currentThread();
+        this.blocked.add(thread);
+
+        //  checked after joining the queue, so a slot freed in between is never missed
+        if(this.tail.get() - this.head > this.mask && !this.closed) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+
+        this.blocked.remove(thread);
+    }
+
+    private void releaseBlocked()
+    {
+        for(Thread thread : this.blocked)
+        {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void consume()
+    {
+        Queue<Channel> waiting = new ArrayDeque<>();
+
+        while(true)
+        {
+            boolean closing = this.closed;
+            int delivered = this.drain() + this.deliverCoalesced(waiting);
+
+            if(delivered > 0) continue;
+            if(closing && this.tail.get() == this.head && this.coalesced.isEmpty() && waiting.isEmpty()) return;
+
+            this.idle = true;
+            if(this.tail.get() == this.head && this.coalesced.isEmpty() && !this.closed)
+            {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            this.idle = false;
+        }
+    }
+
+    private int drain()
+    {
+        int delivered = 0;
+
+        while(true)
+        {
+            //  read on every pass, since an event method can drain further from within deliver
+            long head = this.head;
+            int slot = (int) (head & this.mask);
+            if(this.sequences.get(slot) != head + 1) break;
+
+            Channel channel = this.channels[slot];
+            Object event = this.events[slot], item = this.items[slot];
+            int index = this.indexes[slot];
+
+            this.channels[slot] = null;
+            this.events[slot] = null;
+            this.items[slot] = null;
+            this.sequences.set(slot, head + this.mask + 1);
+            this.head = head + 1;
+            if(!this.blocked.isEmpty()) this.releaseBlocked();
+
+            this.deliver(channel.sink, event, item, index);
+            delivered++;
+        }
+
+        return delivered;
+    }
+
+    private int deliverCoalesced(Queue<Channel> waiting)
+    {
+        int delivered = 0;
+        Channel channel;
+
+        while((channel = this.coalesced.poll()) != null)
+        {
+            waiting.add(channel);
+        }
+
+        for(int i = waiting.size(); i > 0; i--)
+        {
+            channel = waiting.poll();
+            Pending p = channel.pending.get();
+
+            //  only deliver once everything the structure published before it has been delivered
+            if(p.position > this.head)
+            {
+                waiting.add(channel);
+                continue;
+            }
+            while(!channel.pending.compareAndSet(p, null))
+            {
+                p = channel.pending.get();
+            }
+
+            this.deliver(channel.sink, p.event, p.item, p.index);
+            delivered++;
+        }
+
+        return delivered;
+    }
+
+    private void deliver(Sink sink, Object event, Object item, int index)
+    {
+        try
+        {
+            sink.deliver(event, item, index);
+        }catch(Throwable ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package jStructs;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the annotated event methods of an event object into {@code MethodHandle}s. Each event class is only
+ * reflected upon once per annotation, the result is cached and shared by every structure using that class.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class EventHandlers
+{
+    static final MethodHandle[] NONE = new MethodHandle[0];
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Map<Class<? extends Annotation>, MethodHandle[]>> CACHE = new ClassValue<>()
+    {
+        @Override
+        protected Map<Class<? extends Annotation>, MethodHandle[]> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private EventHandlers(){}
+
+    /**
+     * @param eventClassInstance The event object to bind the handlers to. If {@code null}, no handlers are returned.
+     * @param annotation The annotation marking the handler methods.
+     * @param type The type the handlers get adapted to. Methods whose parameter count differs from it are skipped.
+     * @return The matching handlers, bound to {@code eventClassInstance} and adapted to {@code type}.
+     */
+    static MethodHandle[] bind(Object eventClassInstance, Class<? extends Annotation> annotation, MethodType type)
+    {
+        if(eventClassInstance == null) return NONE;
+
+        MethodHandle[] unbound = CACHE.get(eventClassInstance.getClass()).computeIfAbsent(annotation, a -> resolve(eventClassInstance.getClass(), a));
+        List<MethodHandle> bound = new ArrayList<>(unbound.length);
+
+        for(MethodHandle h : unbound)
+        {
+            if(h.type().parameterCount() - 1 != type.parameterCount()) continue;
+
+            try
+            {
+                bound.add(h.bindTo(eventClassInstance).asType(type));
+            }catch(Exception ex)
+            {
+                ex.printStackTrace();
+            }
+        }
+
+        return bound.isEmpty() ? NONE : bound.toArray(NONE);
+    }
+
+    private static MethodHandle[] resolve(Class<?> eventClass, Class<? extends Annotation> annotation)
+    {
+        List<MethodHandle> handlers = new ArrayList<>();
+
+        for(Method m : eventClass.getDeclaredMethods())
+        {
+            if(m.getDeclaredAnnotation(annotation) == null) continue;
+
+            try
+            {
+                m.setAccessible(true);
+                MethodHandle h = LOOKUP.unreflect(m);
+
+                if(Modifier.isStatic(m.getModifiers()))
+                {
+                    h = MethodHandles.dropArguments(h, 0, eventClass);
+                }
+
+                handlers.add(h.asType(h.type().changeParameterType(0, Object.class)));
+            }catch(Exception ex)
+            {
+                ex.printStackTrace();
+            }
+        }
+
+        return handlers.isEmpty() ? NONE : handlers.toArray(NONE);
+    }
+}
@@ -0,0 +1,501 @@
+package jStructs;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import jStructs.ArrList.Event;
+
+/**
+ * An {@code ArrList} of {@code int}s, backed by an {@code int[]} so items are never boxed. Its events are the same as
+ * {@code ArrList}'s, but the annotated methods take the item as an {@code int}, e.g.
+ * {@code @IntArrList.AddedEvent void added(IntArrList<?> list, int item, int index)}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class IntArrList<T1> {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY_ARRAY = new int[0];
+
+    private int[] array = EMPTY_ARRAY;
+    private int size;
+    private T1 eventClassInstance;
+    private int addedItem, removedItem, setItem;
+    private int addedIndex, removedIndex, setIndex;
+    private MethodHandle[] setHandlers = EventHandlers.NONE, addedHandlers = EventHandlers.NONE,
+            removedHandlers = EventHandlers.NONE, invalidIndexHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, IntArrList.class);
+    private static final MethodType ITEM_TYPE = MethodType.methodType(void.class, IntArrList.class, int.class, int.class);
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AddedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface RemovedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface InvalidIndexEvent{}
+
+    public static <T1> IntArrList<T1> from(int[] array)
+    {
+        IntArrList<T1> list = IntArrList.withCapacity(array.length);
+
+        for(int i = 0; i < array.length; i++)
+        {
+            list.add(array[i]);
+        }
+
+        return list;
+    }
+
+    public static <T1> IntArrList<T1> from(T1 eventInstance)
+    {
+        IntArrList<T1> list = new IntArrList<>();
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public static <T1> IntArrList<T1> from(int[] array, T1 eventInstance)
+    {
+        IntArrList<T1> list = IntArrList.from(array);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    /**
+     * @param capacity The amount of items the list can hold before its backing array has to grow.
+     * @return A new, empty {@code IntArrList} with the specified initial capacity.
+     */
+    public static <T1> IntArrList<T1> withCapacity(int capacity)
+    {
+        IntArrList<T1> list = new IntArrList<>();
+        list.ensureCapacity(capacity);
+
+        return list;
+    }
+
+    public static <T1> IntArrList<T1> withCapacity(int capacity, T1 eventInstance)
+    {
+        IntArrList<T1> list = IntArrList.withCapacity(capacity);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    /**
+     * Grows the backing array, if needed, so it can hold at least {@code minCapacity} items without reallocating.
+     * @param minCapacity The minimum capacity to guarantee
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        if(minCapacity <= this.array.length) return;
+
+        int newCapacity = this.array.length == 0 ? DEFAULT_CAPACITY : this.array.length + (this.array.length >> 1);
+        if(newCapacity < minCapacity || newCapacity < 0) newCapacity = minCapacity;
+
+        Metrics.resized(this, this.array.length, newCapacity, this.size, Integer.BYTES);
+        this.array = Arrays.copyOf(this.array, newCapacity);
+    }
+
+    /**
+     * Shrinks the backing array so its capacity matches the list's length.
+     */
+    public void trimToSize()
+    {
+        if(this.size < this.array.length)
+        {
+            Metrics.resized(this, this.array.length, this.size, this.size, Integer.BYTES);
+            this.array = this.size == 0 ? EMPTY_ARRAY : Arrays.copyOf(this.array, this.size);
+        }
+    }
+
+    /**
+     * @return The amount of items the list can hold before its backing array has to grow.
+     */
+    public int capacity()
+    {
+        return this.array.length;
+    }
+
+    public void add(int item)
+    {
+        this.ensureCapacity(this.size + 1);
+        this.array[this.size] = item;
+
+        this.addedItem = item;
+        this.addedIndex = this.size;
+        this.size++;
+
+        this.fire(Event.ADDED);
+    }
+
+    public void add(int index, int item)
+    {
+        Objects.checkIndex(index, this.size + 1);
+
+        this.ensureCapacity(this.size + 1);
+        System.arraycopy(this.array, index, this.array, index + 1, this.size - index);
+        Metrics.copied(this.size - index, Integer.BYTES);
+        this.array[index] = item;
+
+        this.addedItem = item;
+        this.addedIndex = index;
+        this.size++;
+
+        this.fire(Event.ADDED);
+    }
+
+    public void remove()
+    {
+        if(this.size == 1)
+        {
+            this.clear();
+            return;
+        }
+        if(this.size == 0)
+        {
+            this.fire(Event.INVALID_INDEX);
+            return;
+        }
+
+        this.size--;
+        this.removedItem = this.array[this.size];
+        this.removedIndex = this.size;
+
+        this.fire(Event.REMOVED);
+
+    }
+
+    /**
+     * Removes every occurrence of {@code item} in a single pass over the list. Once the list has been compacted, a
+     * {@code REMOVED} event is fired for each, with the index it had when the ones before it were already removed.
+     */
+    public void removeAll(int item)
+    {
+        int[] removedIndexes = this.removedHandlers.length > 0 ? new int[8] : null;
+        int kept = 0, removed = 0, moved = 0;
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(this.array[i] != item)
+            {
+                if(removed > 0) moved++;
+                this.array[kept++] = this.array[i];
+                continue;
+            }
+
+            if(removedIndexes != null)
+            {
+                if(removed == removedIndexes.length) removedIndexes = Arrays.copyOf(removedIndexes, removed * 2);
+                removedIndexes[removed] = i - removed;
+            }
+            removed++;
+        }
+
+        Metrics.copied(moved, Integer.BYTES);
+        this.size = kept;
+        if(removedIndexes == null) return;
+
+        for(int j = 0; j < removed; j++)
+        {
+            this.removedItem = item;
+            this.removedIndex = removedIndexes[j];
+            this.fire(Event.REMOVED);
+        }
+    }
+
+    public void remove(int index)
+    {
+        Objects.checkIndex(index, this.size);
+
+        this.removedIndex = index;
+        this.removedItem = this.array[index];
+
+        System.arraycopy(this.array, index + 1, this.array, index, this.size - index - 1);
+        Metrics.copied(this.size - index - 1, Integer.BYTES);
+        this.size--;
+
+        this.fire(Event.REMOVED);
+
+    }
+
+    public void set(int index, int item)
+    {
+        Objects.checkIndex(index, this.size);
+
+        this.array[index] = item;
+        this.setIndex = index;
+        this.setItem = item;
+        this.fire(Event.SET);
+    }
+
+    public int get(int index)
+    {
+        Objects.checkIndex(index, this.size);
+        return this.array[index];
+    }
+
+    public boolean contains(int item)
+    {
+        for(int i = 0; i < this.size; i++)
+        {
+            if(this.array[i] == item) return true;
+        }
+        return false;
+    }
+
+    public int occurrencesOf(int item)
+    {
+        int occurences = 0;
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(this.array[i] == item) occurences++;
+        }
+
+        return occurences;
+    }
+
+    public int[] indexesOf(int item)
+    {
+        int occurences = this.occurrencesOf(item), offset = 0;
+        int[] indexes = new int[occurences];
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(this.array[i] == item)
+            {
+                indexes[offset] = i;
+                offset++;
+            }
+        }
+
+        return indexes;
+    }
+
+    public void fire(Event e)
+    {
+        switch(e)
+        {
+            case INVALID_INDEX:
+                this.fire(e, 0, -1);
+                break;
+            case REMOVED:
+                this.fire(e, this.removedItem, this.removedIndex);
+                break;
+            case ADDED:
+                this.fire(e, this.addedItem, this.addedIndex);
+                break;
+            case SET:
+                this.fire(e, this.setItem, this.setIndex);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void fire(Event e, int item, int index)
+    {
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, item, index);
+        }
+        else
+        {
+            this.dispatch(e, item, index);
+        }
+    }
+
+    private void dispatch(Event e, int item, int index)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                if(e == Event.INVALID_INDEX)
+                {
+                    h.invokeExact(this);
+                }
+                else
+                {
+                    h.invokeExact(this, item, index);
+                }
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case SET:
+                return this.setHandlers;
+            case ADDED:
+                return this.addedHandlers;
+            case REMOVED:
+                return this.removedHandlers;
+            case INVALID_INDEX:
+                return this.invalidIndexHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    public void clear()
+    {
+        this.size = 0;
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClassInstance The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClassInstance)
+    {
+        this.eventClassInstance = eventClassInstance;
+
+        this.setHandlers = EventHandlers.bind(eventClassInstance, SetEvent.class, ITEM_TYPE);
+        this.addedHandlers = EventHandlers.bind(eventClassInstance, AddedEvent.class, ITEM_TYPE);
+        this.removedHandlers = EventHandlers.bind(eventClassInstance, RemovedEvent.class, ITEM_TYPE);
+        this.invalidIndexHandlers = EventHandlers.bind(eventClassInstance, InvalidIndexEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the mutating call. Items are boxed when published.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event, (Integer) item, index));
+    }
+
+    /**
+     * @return A {@code Spliterator} over the list's items, split by index range.
+     */
+    public Spliterator.OfInt spliterator()
+    {
+        return Spliterators.spliterator(this.array, 0, this.size, Spliterator.ORDERED);
+    }
+
+    /**
+     * Performs {@code action} on every item of the list, in order, without boxing.
+     */
+    public void forEach(IntConsumer action)
+    {
+        int[] array = this.array;
+
+        for(int i = 0, size = this.size; i < size; i++)
+        {
+            action.accept(array[i]);
+        }
+    }
+
+    public IntStream stream()
+    {
+        return StreamSupport.intStream(this.spliterator(), false);
+    }
+
+    public IntStream parallelStream()
+    {
+        return StreamSupport.intStream(this.spliterator(), true);
+    }
+
+    public int length()
+    {
+        return this.size;
+    }
+
+    public int[] toArray()
+    {
+        return Arrays.copyOf(this.array, this.size);
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an ellipsis
+     * once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.ARRAY);
+        for(int i = 0; i < this.size && renderer.add(this.array[i]); i++);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof IntArrList)) return false;
+        IntArrList<?> oList = (IntArrList<?>) o;
+
+        return Arrays.equals(oList.array, 0, oList.size, this.array, 0, this.size) && (oList.eventClassInstance == this.eventClassInstance);
+    }
+
+    @Override
+    public Object clone()
+    {
+        return IntArrList.from(this.toArray(), this.eventClassInstance);
+    }
+
+
+}
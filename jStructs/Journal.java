@@ -0,0 +1,395 @@
+package jStructs;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * A write-ahead journal that makes an {@code ArrList} durable. Once attached with {@code ArrList.setJournal}, every
+ * mutation of the list is appended to a log file as a compact binary record, and {@link #replay()} rebuilds the list
+ * from the journal's directory on startup.
+ * <p>
+ * Records are written in groups: they are buffered until {@link #commit()} is called or the group reaches
+ * {@link #setGroupCommit(int)} records, and each group is then written and forced to disk at once, with a checksum.
+ * A group that was only partly written when the process died is dropped on replay, along with anything after it.
+ * <p>
+ * To keep the log short the journal can be compacted, either explicitly or every {@link #setCompactionInterval(long)}
+ * records: the list is saved as a snapshot (in the {@code ArrList.save} format) and a new, empty log is started. Each
+ * snapshot and its log share a generation number, so a compaction interrupted half way is simply ignored.
+ * <p>
+ * Like {@code ArrList}, a journal is not thread-safe.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public final class Journal<T> implements AutoCloseable
+{
+    private static final byte ADDED = 1, REMOVED = 2, SET = 3, CLEARED = 4;
+    private static final int GROUP_HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocate(4096).order(RecordFile.ORDER);
+    private FileChannel log;
+    private long generation, logged;
+    private int pending, groupSize = 1;
+    private long compactionInterval;
+    private ArrList<T, ?> list;
+
+    private Journal(Path directory, RecordCodec<T> codec)
+    {
+        this.directory = directory;
+        this.codec = codec;
+    }
+
+    /**
+     * Opens the journal kept in {@code directory}, creating the directory if needed. Nothing is read until
+     * {@link #replay()} is called.
+     * @param codec The codec that writes the list's items. It must be the same one every time the journal is opened.
+     */
+    public static <T> Journal<T> open(Path directory, RecordCodec<T> codec) throws IOException
+    {
+        Files.createDirectories(directory);
+        Journal<T> journal = new Journal<>(directory, codec);
+        journal.generation = journal.latestGeneration();
+
+        return journal;
+    }
+
+    /**
+     * Rebuilds the list from the latest snapshot and the log written after it, and attaches the journal to it. No
+     * events are fired; set the list's event object afterwards.
+     * @return The recovered list, empty if the journal is new.
+     * @throws IOException If the snapshot can't be read or was written with a different codec.
+     */
+    public <T1> ArrList<T, T1> replay() throws IOException
+    {
+        this.ensureDetached();
+
+        Path snapshot = this.snapshotPath(this.generation);
+        ArrList<T, T1> list = Files.exists(snapshot) ? ArrList.load(snapshot, this.codec) : new ArrList<>();
+
+        this.log = FileChannel.open(this.logPath(this.generation), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long end = this.apply(list);
+
+        //  drop a torn group at the end, so new groups are appended after the last good one
+        this.log.truncate(end);
+        this.log.position(end);
+        this.deleteOlderGenerations();
+
+        this.list = list;
+        list.journal = this;
+
+        return list;
+    }
+
+    /**
+     * Appends buffered records after this many, instead of after every one. Fewer, bigger groups make each mutation
+     * cheaper, at the cost of losing the records of an unfinished group if the process dies.
+     * @param records The amount of records per group, at least 1.
+     */
+    public void setGroupCommit(int records)
+    {
+        if(records < 1) throw new IllegalArgumentException("a group holds at least 1 record: " + records);
+        this.groupSize = records;
+    }
+
+    /**
+     * Compacts the journal automatically once this many records were logged since the last snapshot.
+     * @param records The amount of records, or 0 to only compact when {@link #compact()} is called.
+     */
+    public void setCompactionInterval(long records)
+    {
+        this.compactionInterval = records;
+    }
+
+    /**
+     * Writes the buffered records as a single group and forces them to disk.
+     */
+    public void commit() throws IOException
+    {
+        if(this.pending == 0) return;
+        this.ensureAttached();
+
+        int length = this.buffer.position() - GROUP_HEADER_BYTES;
+        this.crc.reset();
+        this.crc.update(this.buffer.array(), GROUP_HEADER_BYTES, length);
+        this.buffer.putInt(0, length).putInt(4, (int) this.crc.getValue());
+
+        this.buffer.flip();
+        while(this.buffer.hasRemaining())
+        {
+            this.log.write(this.buffer);
+        }
+        this.log.force(false);
+
+        this.logged += this.pending;
+        this.pending = 0;
+        this.buffer.clear();
+
+        if(this.compactionInterval > 0 && this.logged >= this.compactionInterval) this.compact();
+    }
+
+    /**
+     * Saves the list as a new snapshot and starts an empty log, then deletes the previous snapshot and log. The snapshot
+     * is on disk before it replaces anything, and the new files' directory entries before the old files are deleted.
+     */
+    public void compact() throws IOException
+    {
+        if(this.list == null) throw new IllegalStateException("the journal is not attached to a list");
+        this.pending = 0;
+        this.buffer.clear();
+
+        long generation = this.generation + 1;
+        //  saving writes a temporary file and renames it, so the snapshot is complete before it appears
+        this.list.save(this.snapshotPath(generation), this.codec);
+
+        if(this.log != null) this.log.close();
+        this.log = FileChannel.open(this.logPath(generation), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.generation = generation;
+        this.logged = 0;
+
+        RecordFile.forceDirectory(this.directory);
+        this.deleteOlderGenerations();
+    }
+
+    /**
+     * Commits the buffered records and closes the log. The list stops being journaled.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(this.log == null) return;
+
+        try
+        {
+            this.commit();
+        }
+        finally
+        {
+            this.log.close();
+            this.log = null;
+            if(this.list != null) this.list.journal = null;
+            this.list = null;
+        }
+    }
+
+    public Path getDirectory()
+    {
+        return this.directory;
+    }
+
+    /**
+     * Attaches the journal to {@code list}, starting from a snapshot of its current items.
+     */
+    void attach(ArrList<T, ?> list) throws IOException
+    {
+        this.ensureDetached();
+
+        this.list = list;
+        this.compact();
+        list.journal = this;
+    }
+
+    void added(int index, T item)
+    {
+        this.reserve(1 + Integer.BYTES + this.codec.size());
+        this.buffer.put(ADDED).putInt(index);
+        this.codec.write(this.buffer, this.buffer.position(), item);
+        this.buffer.position(this.buffer.position() + this.codec.size());
+        this.logged();
+    }
+
+    void removed(int index)
+    {
+        this.reserve(1 + Integer.BYTES);
+        this.buffer.put(REMOVED).putInt(index);
+        this.logged();
+    }
+
+    void set(int index, T item)
+    {
+        this.reserve(1 + Integer.BYTES + this.codec.size());
+        this.buffer.put(SET).putInt(index);
+        this.codec.write(this.buffer, this.buffer.position(), item);
+        this.buffer.position(this.buffer.position() + this.codec.size());
+        this.logged();
+    }
+
+    void cleared()
+    {
+        this.reserve(1);
+        this.buffer.put(CLEARED);
+        this.logged();
+    }
+
+    /**
+     * Called when the list changed in a way the log can't describe, like a sort. A snapshot is taken instead.
+     */
+    void rewritten()
+    {
+        try
+        {
+            this.compact();
+        }catch(IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void logged()
+    {
+        this.pending++;
+        if(this.pending < this.groupSize) return;
+
+        try
+        {
+            this.commit();
+        }catch(IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void reserve(int bytes)
+    {
+        if(this.buffer.position() == 0) this.buffer.position(GROUP_HEADER_BYTES);
+        if(this.buffer.remaining() >= bytes) return;
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2, this.buffer.position() + bytes)).order(RecordFile.ORDER);
+        buffer.put(this.buffer.flip());
+        this.buffer = buffer;
+    }
+
+    /**
+     * Applies every complete group of the log to {@code list}.
+     * @return The position right after the last complete group.
+     */
+    private long apply(ArrList<T, ?> list) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(GROUP_HEADER_BYTES).order(RecordFile.ORDER);
+        long position = 0, size = this.log.size();
+
+        while(position + GROUP_HEADER_BYTES <= size)
+        {
+            header.clear();
+            this.readFully(header, position);
+
+            int length = header.getInt(0);
+            if(length <= 0 || position + GROUP_HEADER_BYTES + length > size) break;
+
+            ByteBuffer group = ByteBuffer.allocate(length).order(RecordFile.ORDER);
+            this.readFully(group, position + GROUP_HEADER_BYTES);
+
+            this.crc.reset();
+            this.crc.update(group.array(), 0, length);
+            if((int) this.crc.getValue() != header.getInt(4)) break;
+
+            this.apply(list, group.flip());
+            position += GROUP_HEADER_BYTES + length;
+        }
+
+        return position;
+    }
+
+    private void apply(ArrList<T, ?> list, ByteBuffer group)
+    {
+        while(group.hasRemaining())
+        {
+            byte op = group.get();
+
+            switch(op)
+            {
+                case ADDED:
+                    list.add(group.getInt(), this.codec.read(group, group.position()));
+                    group.position(group.position() + this.codec.size());
+                    break;
+                case REMOVED:
+                    list.remove(group.getInt());
+                    break;
+                case SET:
+                    list.set(group.getInt(), this.codec.read(group, group.position()));
+                    group.position(group.position() + this.codec.size());
+                    break;
+                case CLEARED:
+                    list.clear();
+                    break;
+                default:
+                    throw new IllegalStateException("unknown journal record " + op + " in " + this.logPath(this.generation));
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException
+    {
+        while(buffer.hasRemaining())
+        {
+            if(this.log.read(buffer, position + buffer.position()) < 0) throw new IOException("unexpected end of " + this.logPath(this.generation));
+        }
+    }
+
+    private long latestGeneration() throws IOException
+    {
+        long latest = 0;
+
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "snapshot-*.bin"))
+        {
+            for(Path file : files)
+            {
+                latest = Math.max(latest, Journal.generationOf(file));
+            }
+        }
+
+        return latest;
+    }
+
+    private void deleteOlderGenerations() throws IOException
+    {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "{snapshot,journal}-*.{bin,log}"))
+        {
+            for(Path file : files)
+            {
+                long generation = Journal.generationOf(file);
+                if(generation >= 0 && generation < this.generation) Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static long generationOf(Path file)
+    {
+        String name = file.getFileName().toString();
+
+        try
+        {
+            return Long.parseLong(name.substring(name.indexOf('-') + 1, name.lastIndexOf('.')));
+        }catch(NumberFormatException ex)
+        {
+            return -1;
+        }
+    }
+
+    private Path snapshotPath(long generation)
+    {
+        return this.directory.resolve("snapshot-" + generation + ".bin");
+    }
+
+    private Path logPath(long generation)
+    {
+        return this.directory.resolve("journal-" + generation + ".log");
+    }
+
+    private void ensureAttached()
+    {
+        if(this.list == null || this.log == null) throw new IllegalStateException("the journal is not attached to a list");
+    }
+
+    private void ensureDetached()
+    {
+        if(this.list != null) throw new IllegalStateException("the journal is already attached to a list");
+    }
+}
@@ -0,0 +1,365 @@
+package jStructs;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import jStructs.SinglyLinkedList.Event;
+
+/**
+ * A lock-free sorted set of {@code SinglyNode}s, in ascending order, that any amount of threads can add to, remove from
+ * and search at once. It is Harris's ordered list: a node is removed in two steps, first marked as deleted so nothing
+ * can be linked after it anymore, then unlinked from its predecessor, and threads that walk past a marked node unlink it
+ * themselves. Since a {@code SinglyNode} link has no spare bit to hold the mark, a node is marked by linking a marker
+ * node right after it, as {@code ConcurrentSkipListMap} does.
+ * <p>
+ * {@link #pollFirst()} fires a {@code TraverseEvent} when it takes a value and a {@code NullTraverseEvent} when the list
+ * is empty, like {@code LockFreeQueue.poll}. Events are called on the calling thread, so the event object must be
+ * thread-safe, and it should be set before the list is shared.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class LockFreeOrderedList<T extends Comparable<? super T>, T1>
+{
+    private final SinglyNode<T> head = new SinglyNode<>();
+    private MethodHandle[] traverseHandlers = EventHandlers.NONE, nullTraverseHandlers = EventHandlers.NONE;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, LockFreeOrderedList.class);
+
+    /**
+     * The node linked after a node to mark it as deleted.
+     */
+    private static final class Marker<T> extends SinglyNode<T>
+    {
+        private Marker(SinglyNode<T> next)
+        {
+            this.setNextRelease(next);
+        }
+    }
+
+    /**
+     * Two nodes that were adjacent when {@code find} looked at them.
+     */
+    private static final class Window<T>
+    {
+        private final SinglyNode<T> pred, curr;
+
+        private Window(SinglyNode<T> pred, SinglyNode<T> curr)
+        {
+            this.pred = pred;
+            this.curr = curr;
+        }
+    }
+
+    /**
+     * Methods with the {@code TraverseEvent} annotation must only have 1 argument, and the argument should be of type
+     * {@code LockFreeOrderedList<T, T1>}.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TraverseEvent{}
+
+    /**
+     * Methods with the {@code NullTraverseEvent} annotation must only have 1 argument, and the argument should be of type
+     * {@code LockFreeOrderedList<T, T1>}.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface NullTraverseEvent{}
+
+    public static <T extends Comparable<? super T>, T1> LockFreeOrderedList<T, T1> from(T1 eventClass)
+    {
+        LockFreeOrderedList<T, T1> list = new LockFreeOrderedList<>();
+        list.setEventClass(eventClass);
+
+        return list;
+    }
+
+    /**
+     * Links {@code value} in at its place in the order, unless an equal value is already in the list.
+     * @return Whether it was added.
+     * @throws NullPointerException If {@code value} is {@code null}.
+     */
+    public boolean add(T value)
+    {
+        Objects.requireNonNull(value);
+
+        while(true)
+        {
+            Window<T> window = this.find(value);
+            if(window.curr != null && window.curr.getOrNull().compareTo(value) == 0) return false;
+
+            SinglyNode<T> node = new SinglyNode<>(value);
+            node.setNextRelease(window.curr);
+
+            if(window.pred.compareAndSetNext(window.curr, node)) return true;
+        }
+    }
+
+    /**
+     * Removes the value equal to {@code value}, if there is one.
+     * @return Whether it was removed by this call.
+     */
+    public boolean remove(T value)
+    {
+        Objects.requireNonNull(value);
+
+        while(true)
+        {
+            Window<T> window = this.find(value);
+            if(window.curr == null || window.curr.getOrNull().compareTo(value) != 0) return false;
+
+            if(this.delete(window.pred, window.curr)) return true;
+        }
+    }
+
+    /**
+     * @return Whether a value equal to {@code value} is in the list. It never writes, and never retries.
+     */
+    public boolean contains(T value)
+    {
+        int hops = 0;
+
+        for(SinglyNode<T> node = this.head.getNextAcquire(); node != null; node = node.getNextAcquire(), hops++)
+        {
+            if(node instanceof Marker) continue;
+
+            int comparison = node.getOrNull().compareTo(value);
+            if(comparison >= 0)
+            {
+                Metrics.traversed(this, hops);
+                return comparison == 0 && !(node.getNextAcquire() instanceof Marker);
+            }
+        }
+
+        Metrics.traversed(this, hops);
+        return false;
+    }
+
+    /**
+     * Takes the smallest value of the list.
+     * @return An {@code Optional} containing the value, or an empty one if the list was empty.
+     */
+    public Optional<T> pollFirst()
+    {
+        while(true)
+        {
+            SinglyNode<T> first = this.head.getNextAcquire();
+
+            if(first == null)
+            {
+                this.fire(Event.NULL_TRAVERSE);
+                return Optional.empty();
+            }
+
+            if(this.delete(this.head, first))
+            {
+                this.fire(Event.TRAVERSE);
+                return Optional.of(first.getOrNull());
+            }
+
+            //  another thread deleted it, so help unlink it before trying the next one
+            SinglyNode<T> marker = first.getNextAcquire();
+            if(marker instanceof Marker) this.head.compareAndSetNext(first, marker.getNextAcquire());
+        }
+    }
+
+    /**
+     * @return An {@code Optional} containing the smallest value of the list, without taking it.
+     */
+    public Optional<T> peekFirst()
+    {
+        for(SinglyNode<T> node = this.head.getNextAcquire(); node != null; node = node.getNextAcquire())
+        {
+            if(!(node instanceof Marker) && !(node.getNextAcquire() instanceof Marker)) return Optional.of(node.getOrNull());
+        }
+
+        return Optional.empty();
+    }
+
+    public boolean isEmpty()
+    {
+        return this.peekFirst().isEmpty();
+    }
+
+    /**
+     * @return The amount of values in the list. It walks the list, and while other threads use it the result is only an
+     * estimate.
+     */
+    public int length()
+    {
+        int length = 0, hops = 0;
+
+        for(SinglyNode<T> node = this.head.getNextAcquire(); node != null; node = node.getNextAcquire(), hops++)
+        {
+            if(!(node instanceof Marker) && !(node.getNextAcquire() instanceof Marker)) length++;
+        }
+
+        Metrics.traversed(this, hops);
+        return length;
+    }
+
+    /**
+     * Performs {@code action} on every value of the list, in ascending order. Values added or removed by other threads
+     * meanwhile may or may not be seen.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        for(SinglyNode<T> node = this.head.getNextAcquire(); node != null; node = node.getNextAcquire())
+        {
+            if(!(node instanceof Marker) && !(node.getNextAcquire() instanceof Marker)) action.accept(node.getOrNull());
+        }
+    }
+
+    /**
+     * Marks {@code node} as deleted, then tries to unlink it from {@code pred}.
+     * @return Whether this call deleted it, {@code false} if another thread did first.
+     */
+    private boolean delete(SinglyNode<T> pred, SinglyNode<T> node)
+    {
+        while(true)
+        {
+            SinglyNode<T> next = node.getNextAcquire();
+            if(next instanceof Marker) return false;
+
+            if(node.compareAndSetNext(next, new Marker<>(next)))
+            {
+                //  if the predecessor changed meanwhile, the next walk past it unlinks the node instead
+                pred.compareAndSetNext(node, next);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Walks to the first value not less than {@code value}, unlinking the deleted nodes on the way.
+     * @return That value's node, {@code null} if there is none, with the node before it.
+     */
+    private Window<T> find(T value)
+    {
+        int hops = 0;
+
+        retry:
+        while(true)
+        {
+            SinglyNode<T> pred = this.head, curr = pred.getNextAcquire();
+
+            while(true)
+            {
+                //  a marker after pred means pred itself was deleted, so the walk starts over
+                if(curr instanceof Marker) continue retry;
+
+                if(curr == null)
+                {
+                    Metrics.traversed(this, hops);
+                    return new Window<>(pred, null);
+                }
+
+                SinglyNode<T> succ = curr.getNextAcquire();
+                if(succ instanceof Marker)
+                {
+                    SinglyNode<T> after = succ.getNextAcquire();
+                    if(!pred.compareAndSetNext(curr, after)) continue retry;
+
+                    curr = after;
+                    continue;
+                }
+
+                if(curr.getOrNull().compareTo(value) >= 0)
+                {
+                    Metrics.traversed(this, hops);
+                    return new Window<>(pred, curr);
+                }
+
+                pred = curr;
+                curr = succ;
+                hops++;
+            }
+        }
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClass The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClass)
+    {
+        this.traverseHandlers = EventHandlers.bind(eventClass, TraverseEvent.class, LIST_TYPE);
+        this.nullTraverseHandlers = EventHandlers.bind(eventClass, NullTraverseEvent.class, LIST_TYPE);
+    }
+
+    public void fire(Event e)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        if(handlers.length == 0) return;
+
+        long start = Metrics.startListeners();
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                h.invokeExact(this);
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case TRAVERSE:
+                return this.traverseHandlers;
+            case NULL_TRAVERSE:
+                return this.nullTraverseHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an
+     * ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.SINGLY);
+        for(SinglyNode<T> node = this.head.getNextAcquire(); node != null; node = node.getNextAcquire())
+        {
+            if(!(node instanceof Marker) && !(node.getNextAcquire() instanceof Marker) && !renderer.add(node.getOrNull())) break;
+        }
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+}
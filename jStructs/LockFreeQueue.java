@@ -0,0 +1,254 @@
+package jStructs;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import jStructs.SinglyLinkedList.Event;
+
+/**
+ * A lock-free, unbounded FIFO queue of {@code SinglyNode}s, for handing values from producer threads to consumer
+ * threads without a lock. It is the Michael-Scott queue: values are appended by a compare-and-set on the last node's
+ * link and taken by a compare-and-set on the head, and threads that find the tail lagging behind move it forward
+ * instead of waiting.
+ * <p>
+ * Every {@link #poll()} that takes a value fires a {@code TraverseEvent}, and every one that finds the queue empty a
+ * {@code NullTraverseEvent}, as {@code SinglyLinkedList} does when it moves along or off its chain. Events are called on
+ * the polling thread, so the event object must be thread-safe, and it should be set before the queue is shared.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class LockFreeQueue<T, T1>
+{
+    private final AtomicReference<SinglyNode<T>> head, tail;
+    private MethodHandle[] traverseHandlers = EventHandlers.NONE, nullTraverseHandlers = EventHandlers.NONE;
+
+    private static final MethodType QUEUE_TYPE = MethodType.methodType(void.class, LockFreeQueue.class);
+
+    public LockFreeQueue()
+    {
+        //  the head is always a node whose value was already taken
+        SinglyNode<T> sentinel = new SinglyNode<>();
+        this.head = new AtomicReference<>(sentinel);
+        this.tail = new AtomicReference<>(sentinel);
+    }
+
+    /**
+     * Methods with the {@code TraverseEvent} annotation must only have 1 argument, and the argument should be of type
+     * {@code LockFreeQueue<T, T1>}.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TraverseEvent{}
+
+    /**
+     * Methods with the {@code NullTraverseEvent} annotation must only have 1 argument, and the argument should be of type
+     * {@code LockFreeQueue<T, T1>}.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface NullTraverseEvent{}
+
+    public static <T, T1> LockFreeQueue<T, T1> from(T1 eventClass)
+    {
+        LockFreeQueue<T, T1> queue = new LockFreeQueue<>();
+        queue.setEventClass(eventClass);
+
+        return queue;
+    }
+
+    /**
+     * Appends {@code value} to the end of the queue. It never blocks.
+     * @throws NullPointerException If {@code value} is {@code null}.
+     */
+    public void offer(T value)
+    {
+        SinglyNode<T> node = new SinglyNode<>(Objects.requireNonNull(value));
+
+        while(true)
+        {
+            SinglyNode<T> tail = this.tail.get(), next = tail.getNextAcquire();
+
+            if(next != null)
+            {
+                //  another offer linked its node but hasn't moved the tail yet
+                this.tail.compareAndSet(tail, next);
+            }
+            else if(tail.compareAndSetNext(null, node))
+            {
+                this.tail.compareAndSet(tail, node);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the value at the front of the queue. It never blocks.
+     * @return An {@code Optional} containing the value, or an empty one if the queue was empty.
+     */
+    public Optional<T> poll()
+    {
+        while(true)
+        {
+            SinglyNode<T> head = this.head.get(), tail = this.tail.get(), next = head.getNextAcquire();
+            if(head != this.head.get()) continue;
+
+            if(next == null)
+            {
+                this.fire(Event.NULL_TRAVERSE);
+                return Optional.empty();
+            }
+
+            if(head == tail)
+            {
+                this.tail.compareAndSet(tail, next);
+                continue;
+            }
+
+            T value = next.getOrNull();
+            if(value != null && this.head.compareAndSet(head, next))
+            {
+                //  the taken node is the new sentinel; dropping its value lets it be collected early
+                next.set(null);
+                this.fire(Event.TRAVERSE);
+                return Optional.of(value);
+            }
+        }
+    }
+
+    /**
+     * @return An {@code Optional} containing the value at the front of the queue, without taking it.
+     */
+    public Optional<T> peek()
+    {
+        while(true)
+        {
+            SinglyNode<T> head = this.head.get(), next = head.getNextAcquire();
+            if(next == null) return Optional.empty();
+
+            T value = next.getOrNull();
+            if(value != null && head == this.head.get()) return Optional.of(value);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return this.head.get().getNextAcquire() == null;
+    }
+
+    /**
+     * @return The amount of values in the queue. It walks the queue, and while other threads use it the result is only
+     * an estimate.
+     */
+    public int length()
+    {
+        int length = 0;
+        for(SinglyNode<T> node = this.head.get().getNextAcquire(); node != null; node = node.getNextAcquire())
+        {
+            if(node.getOrNull() != null) length++;
+        }
+
+        Metrics.traversed(this, length);
+        return length;
+    }
+
+    /**
+     * Performs {@code action} on every value in the queue, from front to back. Values offered or polled by other threads
+     * meanwhile may or may not be seen.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        for(SinglyNode<T> node = this.head.get().getNextAcquire(); node != null; node = node.getNextAcquire())
+        {
+            T value = node.getOrNull();
+            if(value != null) action.accept(value);
+        }
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClass The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClass)
+    {
+        this.traverseHandlers = EventHandlers.bind(eventClass, TraverseEvent.class, QUEUE_TYPE);
+        this.nullTraverseHandlers = EventHandlers.bind(eventClass, NullTraverseEvent.class, QUEUE_TYPE);
+    }
+
+    public void fire(Event e)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        if(handlers.length == 0) return;
+
+        long start = Metrics.startListeners();
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                h.invokeExact(this);
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case TRAVERSE:
+                return this.traverseHandlers;
+            case NULL_TRAVERSE:
+                return this.nullTraverseHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    /**
+     * Writes the values in the queue to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values in the queue to {@code out} as {@link #toString()} does, one at a time, stopping with an
+     * ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.SINGLY);
+        for(SinglyNode<T> node = this.head.get().getNextAcquire(); node != null; node = node.getNextAcquire())
+        {
+            T value = node.getOrNull();
+            if(value != null && !renderer.add(value)) break;
+        }
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+}
@@ -0,0 +1,393 @@
+package jStructs;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and JDK Flight Recorder events for the structures' internal work: backing array resizes and copies,
+ * linked list walks, and event method calls. Everything is off until {@link #setEnabled(boolean)} is called with
+ * {@code true}, or the JVM is started with {@code -Djstructs.metrics=true}. While off, every hook is a single volatile
+ * read.
+ * <p>
+ * The JFR events are in the {@code jStructs} category and are only recorded while a recording is running. The
+ * counters can be read at any time with {@link #snapshot()}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public final class Metrics
+{
+    /**
+     * The amount of bytes a copied reference is counted as. This assumes compressed references.
+     */
+    static final int REFERENCE_BYTES = 4;
+
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = Boolean.getBoolean("jstructs.metrics");
+
+    private static final LongAdder resizes = new LongAdder(), copies = new LongAdder(), bytesCopied = new LongAdder(),
+            traversals = new LongAdder(), traversalHops = new LongAdder();
+
+    private static final ClassValue<Map<Enum<?>, ListenerCounters>> listeners = new ClassValue<>()
+    {
+        @Override
+        protected Map<Enum<?>, ListenerCounters> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final Map<Class<?>, Map<Enum<?>, ListenerCounters>> listenersByStructure = new ConcurrentHashMap<>();
+
+    private Metrics(){}
+
+    public static void setEnabled(boolean enabled)
+    {
+        Metrics.enabled = enabled;
+    }
+
+    public static boolean isEnabled()
+    {
+        return Metrics.enabled;
+    }
+
+    /**
+     * Sets every counter back to 0.
+     */
+    public static void reset()
+    {
+        resizes.reset();
+        copies.reset();
+        bytesCopied.reset();
+        traversals.reset();
+        traversalHops.reset();
+
+        for(Map<Enum<?>, ListenerCounters> counters : listenersByStructure.values())
+        {
+            for(ListenerCounters c : counters.values())
+            {
+                c.invocations.reset();
+                c.nanos.reset();
+                c.exceptions.reset();
+            }
+        }
+    }
+
+    /**
+     * @return A copy of the counters as they are now.
+     */
+    public static Snapshot snapshot()
+    {
+        Map<String, ListenerStats> stats = new TreeMap<>();
+
+        listenersByStructure.forEach((structure, counters) -> counters.forEach((event, c) ->
+                stats.put(structure.getSimpleName() + "." + event.name(),
+                        new ListenerStats(c.invocations.sum(), c.nanos.sum(), c.exceptions.sum()))));
+
+        return new Snapshot(resizes.sum(), copies.sum(), bytesCopied.sum(), traversals.sum(), traversalHops.sum(),
+                Collections.unmodifiableMap(stats));
+    }
+
+    /**
+     * The counters at the time {@link Metrics#snapshot()} was called.
+     */
+    public static final class Snapshot
+    {
+        private final long resizes, copies, bytesCopied, traversals, traversalHops;
+        private final Map<String, ListenerStats> listeners;
+
+        private Snapshot(long resizes, long copies, long bytesCopied, long traversals, long traversalHops, Map<String, ListenerStats> listeners)
+        {
+            this.resizes = resizes;
+            this.copies = copies;
+            this.bytesCopied = bytesCopied;
+            this.traversals = traversals;
+            this.traversalHops = traversalHops;
+            this.listeners = listeners;
+        }
+
+        /**
+         * @return The amount of times a backing array was reallocated.
+         */
+        public long getResizes()
+        {
+            return this.resizes;
+        }
+
+        /**
+         * @return The amount of bulk copies, including the ones done by resizes.
+         */
+        public long getCopies()
+        {
+            return this.copies;
+        }
+
+        /**
+         * @return The amount of bytes moved by those copies. References count as 4 bytes.
+         */
+        public long getBytesCopied()
+        {
+            return this.bytesCopied;
+        }
+
+        /**
+         * @return The amount of linked list walks.
+         */
+        public long getTraversals()
+        {
+            return this.traversals;
+        }
+
+        /**
+         * @return The amount of nodes stepped over by those walks.
+         */
+        public long getTraversalHops()
+        {
+            return this.traversalHops;
+        }
+
+        /**
+         * @return The event method statistics, keyed by structure and event, e.g. {@code "ArrList.ADDED"}.
+         */
+        public Map<String, ListenerStats> getListeners()
+        {
+            return this.listeners;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Metrics{resizes=" + this.resizes + ", copies=" + this.copies + ", bytesCopied=" + this.bytesCopied
+                    + ", traversals=" + this.traversals + ", traversalHops=" + this.traversalHops
+                    + ", listeners=" + this.listeners + "}";
+        }
+    }
+
+    /**
+     * How often the event methods of one event of one structure were called, how long they took and how often they threw.
+     */
+    public static final class ListenerStats
+    {
+        private final long invocations, nanos, exceptions;
+
+        private ListenerStats(long invocations, long nanos, long exceptions)
+        {
+            this.invocations = invocations;
+            this.nanos = nanos;
+            this.exceptions = exceptions;
+        }
+
+        /**
+         * @return The amount of times the event was dispatched to at least one event method.
+         */
+        public long getInvocations()
+        {
+            return this.invocations;
+        }
+
+        /**
+         * @return The total time spent in the event methods, in nanoseconds.
+         */
+        public long getTotalNanos()
+        {
+            return this.nanos;
+        }
+
+        public long getExceptions()
+        {
+            return this.exceptions;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "{invocations=" + this.invocations + ", totalNanos=" + this.nanos + ", exceptions=" + this.exceptions + "}";
+        }
+    }
+
+    private static final class ListenerCounters
+    {
+        private final LongAdder invocations = new LongAdder(), nanos = new LongAdder(), exceptions = new LongAdder();
+    }
+
+    static void resized(Object structure, int oldCapacity, int newCapacity, int elementsCopied, int elementBytes)
+    {
+        if(!Metrics.enabled) return;
+
+        long bytes = (long) elementsCopied * elementBytes;
+        resizes.increment();
+        copies.increment();
+        bytesCopied.add(bytes);
+
+        ResizeEvent event = new ResizeEvent();
+        if(event.shouldCommit())
+        {
+            event.structure = structure.getClass().getSimpleName();
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.bytesCopied = bytes;
+            event.commit();
+        }
+    }
+
+    static void copied(int elementsCopied, int elementBytes)
+    {
+        if(!Metrics.enabled || elementsCopied <= 0) return;
+
+        copies.increment();
+        bytesCopied.add((long) elementsCopied * elementBytes);
+    }
+
+    static void traversed(Object structure, long hops)
+    {
+        if(!Metrics.enabled) return;
+
+        traversals.increment();
+        traversalHops.add(hops);
+
+        TraversalEvent event = new TraversalEvent();
+        if(event.shouldCommit())
+        {
+            event.structure = structure.getClass().getSimpleName();
+            event.hops = hops;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return The time to pass to {@link #listenersInvoked}, or a marker telling it metrics were off.
+     */
+    static long startListeners()
+    {
+        return Metrics.enabled ? System.nanoTime() : DISABLED;
+    }
+
+    static void listenersInvoked(Object structure, Enum<?> e, int handlers, long start)
+    {
+        if(start == DISABLED || handlers == 0) return;
+
+        long nanos = System.nanoTime() - start;
+        ListenerCounters counters = Metrics.countersOf(structure, e);
+        counters.invocations.increment();
+        counters.nanos.add(nanos);
+
+        ListenerEvent event = new ListenerEvent();
+        if(event.shouldCommit())
+        {
+            event.structure = structure.getClass().getSimpleName();
+            event.event = e.name();
+            event.handlers = handlers;
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+
+    static void listenerFailed(Object structure, Enum<?> e, Throwable ex)
+    {
+        if(!Metrics.enabled) return;
+
+        Metrics.countersOf(structure, e).exceptions.increment();
+
+        ListenerExceptionEvent event = new ListenerExceptionEvent();
+        if(event.shouldCommit())
+        {
+            event.structure = structure.getClass().getSimpleName();
+            event.event = e.name();
+            event.exception = ex.getClass().getName();
+            event.message = ex.getMessage();
+            event.commit();
+        }
+    }
+
+    private static ListenerCounters countersOf(Object structure, Enum<?> e)
+    {
+        Map<Enum<?>, ListenerCounters> counters = listeners.get(structure.getClass());
+        ListenerCounters c = counters.get(e);
+
+        if(c == null)
+        {
+            listenersByStructure.putIfAbsent(structure.getClass(), counters);
+            c = counters.computeIfAbsent(e, k -> new ListenerCounters());
+        }
+
+        return c;
+    }
+
+    @Name("jStructs.Resize")
+    @Label("Backing Array Resize")
+    @Category("jStructs")
+    @StackTrace(false)
+    static final class ResizeEvent extends jdk.jfr.Event
+    {
+        @Label("Structure")
+        String structure;
+
+        @Label("Old Capacity")
+        int oldCapacity;
+
+        @Label("New Capacity")
+        int newCapacity;
+
+        @Label("Bytes Copied")
+        @jdk.jfr.DataAmount
+        long bytesCopied;
+    }
+
+    @Name("jStructs.Traversal")
+    @Label("Linked List Traversal")
+    @Category("jStructs")
+    @StackTrace(false)
+    static final class TraversalEvent extends jdk.jfr.Event
+    {
+        @Label("Structure")
+        String structure;
+
+        @Label("Hops")
+        long hops;
+    }
+
+    @Name("jStructs.Listener")
+    @Label("Event Method Dispatch")
+    @Description("The event methods called for a single event")
+    @Category("jStructs")
+    @StackTrace(false)
+    static final class ListenerEvent extends jdk.jfr.Event
+    {
+        @Label("Structure")
+        String structure;
+
+        @Label("Event")
+        String event;
+
+        @Label("Handlers")
+        int handlers;
+
+        @Label("Duration")
+        @jdk.jfr.Timespan
+        long nanos;
+    }
+
+    @Name("jStructs.ListenerException")
+    @Label("Event Method Exception")
+    @Category("jStructs")
+    static final class ListenerExceptionEvent extends jdk.jfr.Event
+    {
+        @Label("Structure")
+        String structure;
+
+        @Label("Event")
+        String event;
+
+        @Label("Exception")
+        String exception;
+
+        @Label("Message")
+        String message;
+    }
+}
@@ -0,0 +1,769 @@
+package jStructs;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import jStructs.ArrList.Event;
+
+/**
+ * An {@code ArrList} whose items live outside of the Java heap, as fixed-width records written by a
+ * {@code RecordCodec}. The records are stored in direct {@code ByteBuffer} chunks, so growing a large list never copies
+ * its existing records and the list is not limited to 2GB. Items are decoded again on every read. The codecs of
+ * {@code RecordCodec} itself read and write the chunks in place; any other codec is given a heap copy of each record
+ * instead, so it never holds on to memory that {@link #close()} frees.
+ * <p>
+ * Its events are the same as {@code ArrList}'s, with the annotated methods taking an {@code OffHeapArrList} as their
+ * first argument. Once {@link #close()} is called the memory is released and the list can no longer be used. Chunks
+ * mapped from a file by {@link #map(Path, RecordCodec)} are the exception: they are only unmapped once the JVM collects
+ * them.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class OffHeapArrList<T, T1> implements AutoCloseable {
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final ByteBuffer[] NO_CHUNKS = new ByteBuffer[0];
+
+    private final RecordCodec<T> codec;
+    private final int recordSize, chunkRecords;
+    private final byte[] scratch;
+    //  whether the codec is one of RecordCodec's own, which are trusted with the chunks themselves
+    private final boolean direct;
+    private ByteBuffer[] chunks = NO_CHUNKS;
+    //  the first chunks can be mappings of a file, which are left to the JVM to unmap
+    private int size, mappedChunks;
+    private boolean closed;
+    private T1 eventClassInstance;
+    private T addedItem, removedItem, setItem;
+    private int addedIndex, removedIndex, setIndex;
+    private MethodHandle[] setHandlers = EventHandlers.NONE, addedHandlers = EventHandlers.NONE,
+            removedHandlers = EventHandlers.NONE, invalidIndexHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, OffHeapArrList.class);
+    private static final MethodType ITEM_TYPE = MethodType.methodType(void.class, OffHeapArrList.class, Object.class, int.class);
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AddedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface RemovedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface InvalidIndexEvent{}
+
+    public OffHeapArrList(RecordCodec<T> codec)
+    {
+        if(codec.size() < 1) throw new IllegalArgumentException("record size must be positive: " + codec.size());
+
+        this.codec = codec;
+        this.recordSize = codec.size();
+        this.chunkRecords = Math.max(1, CHUNK_BYTES / this.recordSize);
+        this.scratch = new byte[this.recordSize];
+        this.direct = codec == RecordCodec.INT || codec == RecordCodec.LONG || codec == RecordCodec.DOUBLE;
+    }
+
+    public static <T, T1> OffHeapArrList<T, T1> from(RecordCodec<T> codec, T1 eventInstance)
+    {
+        OffHeapArrList<T, T1> list = new OffHeapArrList<>(codec);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public static <T, T1> OffHeapArrList<T, T1> from(RecordCodec<T> codec, T[] array)
+    {
+        OffHeapArrList<T, T1> list = OffHeapArrList.withCapacity(codec, array.length);
+
+        for(int i = 0; i < array.length; i++)
+        {
+            list.add(array[i]);
+        }
+
+        return list;
+    }
+
+    public static <T, T1> OffHeapArrList<T, T1> from(RecordCodec<T> codec, T[] array, T1 eventInstance)
+    {
+        OffHeapArrList<T, T1> list = OffHeapArrList.from(codec, array);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    /**
+     * @param capacity The amount of records to allocate memory for up front.
+     * @return A new, empty {@code OffHeapArrList} with the specified initial capacity.
+     */
+    public static <T, T1> OffHeapArrList<T, T1> withCapacity(RecordCodec<T> codec, int capacity)
+    {
+        OffHeapArrList<T, T1> list = new OffHeapArrList<>(codec);
+        list.ensureCapacity(capacity);
+
+        return list;
+    }
+
+    /**
+     * Maps a list saved with {@code ArrList.save} or {@link #save(Path)} into memory instead of reading it.
+     * The file's pages are only loaded once they are touched, so opening even a very large list is immediate. The
+     * mapping is private: changes to the list are never written back to the file. No events are fired.
+     * @param codec The codec the list was saved with.
+     * @throws IOException If the file can't be opened, isn't a saved list, or was saved with a different record size.
+     */
+    public static <T, T1> OffHeapArrList<T, T1> map(Path path, RecordCodec<T> codec) throws IOException
+    {
+        OffHeapArrList<T, T1> list = new OffHeapArrList<>(codec);
+
+        //  private mappings need a channel open for writing, even though the file itself is never changed
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            int count = RecordFile.readHeader(channel, codec, path);
+            int full = count / list.chunkRecords, rest = count % list.chunkRecords;
+            ByteBuffer[] chunks = new ByteBuffer[full + (rest > 0 ? 1 : 0)];
+
+            for(int i = 0; i < full; i++)
+            {
+                chunks[i] = RecordFile.map(channel, FileChannel.MapMode.PRIVATE, list.recordSize, i * list.chunkRecords, list.chunkRecords);
+            }
+
+            //  a partial last chunk is copied, since appending to it must not run past the end of the file
+            if(rest > 0)
+            {
+                chunks[full] = list.allocate(full == 0 ? rest : list.chunkRecords);
+                chunks[full].put(RecordFile.map(channel, FileChannel.MapMode.READ_ONLY, list.recordSize, full * list.chunkRecords, rest)).clear();
+            }
+
+            list.chunks = chunks;
+            list.mappedChunks = full;
+            list.size = count;
+        }
+
+        return list;
+    }
+
+    /**
+     * Saves the list's records to a binary file, replacing the file if it exists. The file can be loaded with
+     * {@code ArrList.load} or mapped with {@link #map(Path, RecordCodec)}. The old file is only replaced once the new one
+     * is complete, so a list mapped from it can be saved back over it.
+     */
+    public void save(Path path) throws IOException
+    {
+        this.ensureOpen();
+        RecordFile.write(path, this.codec, this.size, this::read);
+    }
+
+    /**
+     * Allocates memory, if needed, so the list can hold at least {@code minCapacity} records. Once the list outgrows its
+     * first chunk, existing records are never moved again.
+     * @param minCapacity The minimum capacity to guarantee
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        this.ensureOpen();
+        if(minCapacity <= this.capacity()) return;
+
+        //  the first chunk grows geometrically up to its full size, so short lists don't reserve a whole chunk
+        if(this.chunks.length <= 1)
+        {
+            int current = this.capacity();
+            int records = minCapacity > this.chunkRecords ? this.chunkRecords : Math.min(this.chunkRecords, Math.max(minCapacity, Math.max(16, current * 2)));
+
+            ByteBuffer first = this.allocate(records);
+            if(this.chunks.length == 1) first.put(this.chunks[0].duplicate().clear()).clear();
+            Metrics.resized(this, current, records, this.chunks.length == 1 ? current : 0, this.recordSize);
+
+            if(this.chunks.length == 1 && this.mappedChunks == 0) free(this.chunks[0]);
+            this.chunks = new ByteBuffer[] { first };
+            this.mappedChunks = 0;
+            if(minCapacity <= records) return;
+        }
+
+        int chunkCount = (int) (((long) minCapacity + this.chunkRecords - 1) / this.chunkRecords);
+        ByteBuffer[] newChunks = Arrays.copyOf(this.chunks, chunkCount);
+
+        for(int i = this.chunks.length; i < chunkCount; i++)
+        {
+            newChunks[i] = this.allocate(this.chunkRecords);
+        }
+
+        this.chunks = newChunks;
+    }
+
+    /**
+     * Releases the chunks that hold no records.
+     */
+    public void trimToSize()
+    {
+        this.ensureOpen();
+        int chunkCount = (this.size + this.chunkRecords - 1) / this.chunkRecords;
+
+        if(chunkCount < this.chunks.length)
+        {
+            this.freeChunks(chunkCount);
+            this.chunks = chunkCount == 0 ? NO_CHUNKS : Arrays.copyOf(this.chunks, chunkCount);
+            this.mappedChunks = Math.min(this.mappedChunks, chunkCount);
+        }
+    }
+
+    /**
+     * @return The amount of records the list can hold before it has to allocate more memory.
+     */
+    public int capacity()
+    {
+        if(this.chunks.length == 1) return this.chunks[0].capacity() / this.recordSize;
+
+        return (int) Math.min((long) this.chunks.length * this.chunkRecords, Integer.MAX_VALUE);
+    }
+
+    public void add(T item)
+    {
+        this.ensureCapacity(this.size + 1);
+        this.write(this.size, item);
+
+        this.addedItem = item;
+        this.addedIndex = this.size;
+        this.size++;
+
+        this.fire(Event.ADDED);
+    }
+
+    public void add(int index, T item)
+    {
+        Objects.checkIndex(index, this.size + 1);
+
+        this.ensureCapacity(this.size + 1);
+        this.move(index, index + 1, this.size - index);
+        this.write(index, item);
+
+        this.addedItem = item;
+        this.addedIndex = index;
+        this.size++;
+
+        this.fire(Event.ADDED);
+    }
+
+    public void remove()
+    {
+        this.ensureOpen();
+        if(this.size == 1)
+        {
+            this.clear();
+            return;
+        }
+        if(this.size == 0)
+        {
+            this.fire(Event.INVALID_INDEX);
+            return;
+        }
+
+        this.size--;
+        this.removedItem = this.read(this.size);
+        this.removedIndex = this.size;
+
+        this.fire(Event.REMOVED);
+
+    }
+
+    /**
+     * Removes every item equal to {@code item} in a single pass over the list, moving each kept record at most once.
+     * Once the list has been compacted, a {@code REMOVED} event is fired for each, with the index it had when the ones
+     * before it were already removed.
+     */
+    public void removeAll(T item)
+    {
+        this.ensureOpen();
+        int[] removedIndexes = this.removedHandlers.length > 0 ? new int[8] : null;
+        int kept = 0, removed = 0, moved = 0;
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(!this.read(i).equals(item))
+            {
+                if(removed > 0)
+                {
+                    this.copy(i, kept);
+                    moved++;
+                }
+                kept++;
+                continue;
+            }
+
+            if(removedIndexes != null)
+            {
+                if(removed == removedIndexes.length) removedIndexes = Arrays.copyOf(removedIndexes, removed * 2);
+                removedIndexes[removed] = i - removed;
+            }
+            removed++;
+        }
+
+        Metrics.copied(moved, this.recordSize);
+        this.size = kept;
+        if(removedIndexes == null) return;
+
+        for(int j = 0; j < removed; j++)
+        {
+            this.removedItem = item;
+            this.removedIndex = removedIndexes[j];
+            this.fire(Event.REMOVED);
+        }
+    }
+
+    public void remove(int index)
+    {
+        this.ensureOpen();
+        Objects.checkIndex(index, this.size);
+
+        this.removedIndex = index;
+        this.removedItem = this.read(index);
+
+        this.move(index + 1, index, this.size - index - 1);
+        this.size--;
+
+        this.fire(Event.REMOVED);
+
+    }
+
+    public void set(int index, T item)
+    {
+        this.ensureOpen();
+        Objects.checkIndex(index, this.size);
+
+        this.write(index, item);
+        this.setIndex = index;
+        this.setItem = item;
+        this.fire(Event.SET);
+    }
+
+    public Optional<T> get(int index)
+    {
+        this.ensureOpen();
+        Objects.checkIndex(index, this.size);
+        return Optional.ofNullable(this.read(index));
+    }
+
+    /**
+     * @return The decoded item at {@code index}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing beyond
+     * what the codec does.
+     */
+    public T getOrNull(int index)
+    {
+        this.ensureOpen();
+        Objects.checkIndex(index, this.size);
+        return this.read(index);
+    }
+
+    /**
+     * Performs {@code action} on every decoded item of the list, in order.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        this.ensureOpen();
+        for(int i = 0; i < this.size; i++)
+        {
+            action.accept(this.read(i));
+        }
+    }
+
+    public boolean contains(T item)
+    {
+        this.ensureOpen();
+        for(int i = 0; i < this.size; i++)
+        {
+            if(this.read(i).equals(item)) return true;
+        }
+        return false;
+    }
+
+    public int occurrencesOf(T item)
+    {
+        this.ensureOpen();
+        int occurences = 0;
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(this.read(i).equals(item)) occurences++;
+        }
+
+        return occurences;
+    }
+
+    public int[] indexesOf(T item)
+    {
+        int occurences = this.occurrencesOf(item), offset = 0;
+        int[] indexes = new int[occurences];
+
+        for(int i = 0; i < this.size && offset < occurences; i++)
+        {
+            if(this.read(i).equals(item))
+            {
+                indexes[offset] = i;
+                offset++;
+            }
+        }
+
+        return indexes;
+    }
+
+    public void fire(Event e)
+    {
+        switch(e)
+        {
+            case INVALID_INDEX:
+                this.fire(e, null, -1);
+                break;
+            case REMOVED:
+                this.fire(e, this.removedItem, this.removedIndex);
+                break;
+            case ADDED:
+                this.fire(e, this.addedItem, this.addedIndex);
+                break;
+            case SET:
+                this.fire(e, this.setItem, this.setIndex);
+                break;
+        }
+    }
+
+    private void fire(Event e, Object item, int index)
+    {
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, item, index);
+        }
+        else
+        {
+            this.dispatch(e, item, index);
+        }
+    }
+
+    private void dispatch(Event e, Object item, int index)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                if(e == Event.INVALID_INDEX)
+                {
+                    h.invokeExact(this);
+                }
+                else
+                {
+                    h.invokeExact(this, item, index);
+                }
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case SET:
+                return this.setHandlers;
+            case ADDED:
+                return this.addedHandlers;
+            case REMOVED:
+                return this.removedHandlers;
+            case INVALID_INDEX:
+                return this.invalidIndexHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    public void clear()
+    {
+        this.size = 0;
+    }
+
+    /**
+     * Releases the list's memory. Any later call that reads or writes records throws an {@code IllegalStateException}.
+     * Allocated chunks are freed right away through {@code sun.misc.Unsafe.invokeCleaner}, from the
+     * {@code jdk.unsupported} module. Chunks mapped from a file, and every chunk on a JVM without that method, are only
+     * dropped, and the JVM releases them once it collects them.
+     */
+    @Override
+    public void close()
+    {
+        if(this.closed) return;
+
+        this.closed = true;
+        this.freeChunks(0);
+        this.chunks = NO_CHUNKS;
+        this.mappedChunks = 0;
+        this.size = 0;
+    }
+
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClassInstance The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClassInstance)
+    {
+        this.eventClassInstance = eventClassInstance;
+
+        this.setHandlers = EventHandlers.bind(eventClassInstance, SetEvent.class, ITEM_TYPE);
+        this.addedHandlers = EventHandlers.bind(eventClassInstance, AddedEvent.class, ITEM_TYPE);
+        this.removedHandlers = EventHandlers.bind(eventClassInstance, RemovedEvent.class, ITEM_TYPE);
+        this.invalidIndexHandlers = EventHandlers.bind(eventClassInstance, InvalidIndexEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the mutating call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event, item, index));
+    }
+
+    public RecordCodec<T> getCodec()
+    {
+        return this.codec;
+    }
+
+    public int length()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return A new on-heap array holding every item of the list, decoded.
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toArray()
+    {
+        this.ensureOpen();
+        Object[] array = new Object[this.size];
+
+        for(int i = 0; i < this.size; i++)
+        {
+            array[i] = this.read(i);
+        }
+
+        return (T[]) array;
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an ellipsis
+     * once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        if(this.closed)
+        {
+            out.append("[closed]");
+            return;
+        }
+
+        Renderer renderer = new Renderer(out, options, Renderer.ARRAY);
+        for(int i = 0; i < this.size && renderer.add(this.read(i)); i++);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof OffHeapArrList)) return false;
+        OffHeapArrList<?, ?> oList = (OffHeapArrList<?, ?>) o;
+
+        if(oList.size != this.size || oList.eventClassInstance != this.eventClassInstance) return false;
+        for(int i = 0; i < this.size; i++)
+        {
+            if(!Objects.equals(oList.read(i), this.read(i))) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public Object clone()
+    {
+        return OffHeapArrList.from(this.codec, this.toArray(), this.eventClassInstance);
+    }
+
+    private void ensureOpen()
+    {
+        if(this.closed) throw new IllegalStateException("the list has been closed");
+    }
+
+    /**
+     * Frees the allocated chunks from {@code from} on. They must not be used afterwards, so the caller drops them too.
+     */
+    private void freeChunks(int from)
+    {
+        for(int i = Math.max(from, this.mappedChunks); i < this.chunks.length; i++)
+        {
+            free(this.chunks[i]);
+        }
+    }
+
+    private static void free(ByteBuffer chunk)
+    {
+        if(INVOKE_CLEANER == null) return;
+
+        try
+        {
+            INVOKE_CLEANER.invokeExact(chunk);
+        }catch(Throwable ex)
+        {
+            //  the buffer is left for the JVM to free, as if the method wasn't there
+        }
+    }
+
+    /**
+     * @return {@code Unsafe.invokeCleaner} bound to the {@code Unsafe} instance, or {@code null} if it can't be reached.
+     */
+    private static MethodHandle invokeCleaner()
+    {
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+
+            MethodType type = MethodType.methodType(void.class, ByteBuffer.class);
+            return MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner", type).bindTo(theUnsafe.get(null));
+        }catch(Throwable ex)
+        {
+            return null;
+        }
+    }
+
+    private ByteBuffer allocate(int records)
+    {
+        //  the same order as saved files, so mapped and allocated chunks can be mixed
+        return ByteBuffer.allocateDirect(records * this.recordSize).order(RecordFile.ORDER);
+    }
+
+    private T read(int index)
+    {
+        ByteBuffer chunk = this.chunks[index / this.chunkRecords];
+        int offset = (index % this.chunkRecords) * this.recordSize;
+        if(this.direct) return this.codec.read(chunk, offset);
+
+        //  other codecs only ever get a heap copy of the record, so one that keeps the buffer can't reach the chunk
+        //  once close() has freed it
+        ByteBuffer record = this.record();
+        record.put(0, chunk, offset, this.recordSize);
+        return this.codec.read(record, 0);
+    }
+
+    private void write(int index, T item)
+    {
+        ByteBuffer chunk = this.chunks[index / this.chunkRecords];
+        int offset = (index % this.chunkRecords) * this.recordSize;
+        if(this.direct)
+        {
+            this.codec.write(chunk, offset, item);
+            return;
+        }
+
+        ByteBuffer record = this.record();
+        this.codec.write(record, 0, item);
+        chunk.put(offset, record, 0, this.recordSize);
+    }
+
+    /**
+     * @return A new heap buffer for a single record, in the chunks' byte order.
+     */
+    private ByteBuffer record()
+    {
+        return ByteBuffer.allocate(this.recordSize).order(RecordFile.ORDER);
+    }
+
+    /**
+     * Copies {@code count} records starting at index {@code from} to index {@code to}, handling overlapping ranges.
+     */
+    private void move(int from, int to, int count)
+    {
+        if(count <= 0 || from == to) return;
+        Metrics.copied(count, this.recordSize);
+
+        if(from > to)
+        {
+            for(int i = 0; i < count; i++)
+            {
+                this.copy(from + i, to + i);
+            }
+        }
+        else
+        {
+            for(int i = count - 1; i >= 0; i--)
+            {
+                this.copy(from + i, to + i);
+            }
+        }
+    }
+
+    private void copy(int from, int to)
+    {
+        this.chunks[from / this.chunkRecords].get((from % this.chunkRecords) * this.recordSize, this.scratch);
+        this.chunks[to / this.chunkRecords].put((to % this.chunkRecords) * this.recordSize, this.scratch);
+    }
+}
@@ -0,0 +1,434 @@
+package jStructs;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import jStructs.ArrList.Event;
+
+/**
+ * An {@code ArrList} backed by a {@code PersistentVector}. Each mutation swaps in a new version of the vector that
+ * shares everything but the changed path with the previous one, so {@link #snapshot()} and {@link #clone()} are O(1)
+ * and never copy or re-add items. Appending, setting and removing the last item take O(log32 n); inserting or removing
+ * anywhere else rebuilds the vector and takes O(n).
+ * <p>
+ * Its events are the same as {@code ArrList}'s, with the annotated methods taking a {@code PersistentArrList} as their
+ * first argument.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class PersistentArrList<T, T1> {
+    private PersistentVector<T> items = PersistentVector.empty();
+    private T1 eventClassInstance;
+    private T addedItem, removedItem, setItem;
+    private int addedIndex, removedIndex, setIndex;
+    private MethodHandle[] setHandlers = EventHandlers.NONE, addedHandlers = EventHandlers.NONE,
+            removedHandlers = EventHandlers.NONE, invalidIndexHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, PersistentArrList.class);
+    private static final MethodType ITEM_TYPE = MethodType.methodType(void.class, PersistentArrList.class, Object.class, int.class);
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AddedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface RemovedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface InvalidIndexEvent{}
+
+    /**
+     * @return A new {@code PersistentArrList} holding the items of {@code array}, loaded through a builder. No events
+     * are fired.
+     */
+    public static <T, T1> PersistentArrList<T, T1> from(T[] array)
+    {
+        return PersistentArrList.from(PersistentVector.of(array));
+    }
+
+    /**
+     * @return A new {@code PersistentArrList} starting out with the items of {@code vector}, which is shared, not copied.
+     */
+    public static <T, T1> PersistentArrList<T, T1> from(PersistentVector<T> vector)
+    {
+        PersistentArrList<T, T1> list = new PersistentArrList<>();
+        list.items = vector;
+
+        return list;
+    }
+
+    public static <T, T1> PersistentArrList<T, T1> from(T1 eventInstance)
+    {
+        PersistentArrList<T, T1> list = new PersistentArrList<>();
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public static <T, T1> PersistentArrList<T, T1> from(T[] array, T1 eventInstance)
+    {
+        PersistentArrList<T, T1> list = PersistentArrList.from(array);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public void add(T item)
+    {
+        this.addedItem = item;
+        this.addedIndex = this.items.length();
+        this.items = this.items.add(item);
+
+        this.fire(Event.ADDED);
+    }
+
+    /**
+     * Inserts {@code item} at {@code index}. Unless {@code index} is the list's length, this rebuilds the vector in O(n).
+     */
+    public void add(int index, T item)
+    {
+        Objects.checkIndex(index, this.items.length() + 1);
+
+        if(index == this.items.length())
+        {
+            this.add(item);
+            return;
+        }
+
+        PersistentVector.Builder<T> builder = PersistentVector.<T>empty().toBuilder();
+        for(int i = 0; i < this.items.length(); i++)
+        {
+            if(i == index) builder.add(item);
+            builder.add(this.items.getOrNull(i));
+        }
+        this.items = builder.build();
+
+        this.addedItem = item;
+        this.addedIndex = index;
+        this.fire(Event.ADDED);
+    }
+
+    public void remove()
+    {
+        if(this.items.isEmpty())
+        {
+            this.fire(Event.INVALID_INDEX);
+            return;
+        }
+
+        this.removedIndex = this.items.length() - 1;
+        this.removedItem = this.items.getOrNull(this.removedIndex);
+        this.items = this.items.removeLast();
+
+        this.fire(Event.REMOVED);
+    }
+
+    /**
+     * Removes the item at {@code index}. Unless it is the last item, this rebuilds the vector in O(n).
+     */
+    public void remove(int index)
+    {
+        Objects.checkIndex(index, this.items.length());
+
+        if(index == this.items.length() - 1)
+        {
+            this.remove();
+            return;
+        }
+
+        this.removedIndex = index;
+        this.removedItem = this.items.getOrNull(index);
+
+        PersistentVector.Builder<T> builder = PersistentVector.<T>empty().toBuilder();
+        for(int i = 0; i < this.items.length(); i++)
+        {
+            if(i != index) builder.add(this.items.getOrNull(i));
+        }
+        this.items = builder.build();
+
+        this.fire(Event.REMOVED);
+    }
+
+    public void removeAll(T item)
+    {
+        int[] indexes = this.indexesOf(item);
+        int offset = 0;
+        for(int i : indexes)
+        {
+            this.remove(i - offset);
+            offset++;
+        }
+    }
+
+    public void set(int index, T item)
+    {
+        this.items = this.items.set(index, item);
+
+        this.setIndex = index;
+        this.setItem = item;
+        this.fire(Event.SET);
+    }
+
+    public Optional<T> get(int index)
+    {
+        return this.items.get(index);
+    }
+
+    /**
+     * @return The item at {@code index}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing.
+     */
+    public T getOrNull(int index)
+    {
+        return this.items.getOrNull(index);
+    }
+
+    /**
+     * Performs {@code action} on every item of the list, in order, without allocating.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        this.items.forEach(action);
+    }
+
+    public Stream<T> stream()
+    {
+        return this.items.stream();
+    }
+
+    public boolean contains(T item)
+    {
+        for(int i = 0; i < this.items.length(); i++)
+        {
+            if(Objects.equals(this.items.getOrNull(i), item)) return true;
+        }
+        return false;
+    }
+
+    public int occurrencesOf(T item)
+    {
+        int occurences = 0;
+
+        for(int i = 0; i < this.items.length(); i++)
+        {
+            if(Objects.equals(this.items.getOrNull(i), item)) occurences++;
+        }
+
+        return occurences;
+    }
+
+    public int[] indexesOf(T item)
+    {
+        int[] indexes = new int[this.items.length()];
+        int offset = 0;
+
+        for(int i = 0; i < this.items.length(); i++)
+        {
+            if(Objects.equals(this.items.getOrNull(i), item)) indexes[offset++] = i;
+        }
+
+        return Arrays.copyOf(indexes, offset);
+    }
+
+    /**
+     * @return The list's current items as an immutable vector, in O(1). Later mutations of the list are not seen by it.
+     */
+    public PersistentVector<T> snapshot()
+    {
+        return this.items;
+    }
+
+    public void fire(Event e)
+    {
+        switch(e)
+        {
+            case INVALID_INDEX:
+                this.fire(e, null, -1);
+                break;
+            case REMOVED:
+                this.fire(e, this.removedItem, this.removedIndex);
+                break;
+            case ADDED:
+                this.fire(e, this.addedItem, this.addedIndex);
+                break;
+            case SET:
+                this.fire(e, this.setItem, this.setIndex);
+                break;
+        }
+    }
+
+    private void fire(Event e, Object item, int index)
+    {
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, item, index);
+        }
+        else
+        {
+            this.dispatch(e, item, index);
+        }
+    }
+
+    private void dispatch(Event e, Object item, int index)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                if(e == Event.INVALID_INDEX)
+                {
+                    h.invokeExact(this);
+                }
+                else
+                {
+                    h.invokeExact(this, item, index);
+                }
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case SET:
+                return this.setHandlers;
+            case ADDED:
+                return this.addedHandlers;
+            case REMOVED:
+                return this.removedHandlers;
+            case INVALID_INDEX:
+                return this.invalidIndexHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    public void clear()
+    {
+        this.items = PersistentVector.empty();
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClassInstance The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClassInstance)
+    {
+        this.eventClassInstance = eventClassInstance;
+
+        this.setHandlers = EventHandlers.bind(eventClassInstance, SetEvent.class, ITEM_TYPE);
+        this.addedHandlers = EventHandlers.bind(eventClassInstance, AddedEvent.class, ITEM_TYPE);
+        this.removedHandlers = EventHandlers.bind(eventClassInstance, RemovedEvent.class, ITEM_TYPE);
+        this.invalidIndexHandlers = EventHandlers.bind(eventClassInstance, InvalidIndexEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the mutating call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event, item, index));
+    }
+
+    public int length()
+    {
+        return this.items.length();
+    }
+
+    public T[] toArray()
+    {
+        return this.items.toArray();
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an ellipsis
+     * once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        this.items.writeTo(out, options);
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof PersistentArrList)) return false;
+        PersistentArrList<?, ?> oList = (PersistentArrList<?, ?>) o;
+
+        return oList.items.equals(this.items) && (oList.eventClassInstance == this.eventClassInstance);
+    }
+
+    /**
+     * @return A new list with the same items and event object, in O(1). The two lists share the current vector and
+     * diverge as either one is changed. No events are fired.
+     */
+    @Override
+    public Object clone()
+    {
+        PersistentArrList<T, T1> clone = PersistentArrList.from(this.items);
+        clone.eventClassInstance = this.eventClassInstance;
+        clone.setHandlers = this.setHandlers;
+        clone.addedHandlers = this.addedHandlers;
+        clone.removedHandlers = this.removedHandlers;
+        clone.invalidIndexHandlers = this.invalidIndexHandlers;
+
+        return clone;
+    }
+}
@@ -0,0 +1,552 @@
+package jStructs;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable list stored as a 32-way trie, plus a tail array holding its last (up to) 32 items. Every "change"
+ * returns a new vector that shares all of the old one's nodes except the path to the changed item, so {@code add},
+ * {@code set} and {@code removeLast} copy O(log32 n) small arrays and keeping an old version around costs nothing.
+ * <p>
+ * Bulk loads should go through a {@link Builder}, which changes the nodes it created in place instead of copying them.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public final class PersistentVector<T> implements Iterable<T>
+{
+    private static final int BITS = 5, WIDTH = 1 << BITS, MASK = WIDTH - 1;
+    private static final Object[] NO_ITEMS = new Object[0];
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, NO_ITEMS);
+
+    private final int count, shift;
+    private final Node root;
+    private final Object[] tail;
+
+    /**
+     * A trie node. Its array holds child nodes, or items on the bottom level. {@code edit} is the {@code Builder} that
+     * owns it, if any, which is the only one allowed to change it in place.
+     */
+    private static final class Node
+    {
+        private final Object edit;
+        private final Object[] array;
+
+        private Node(Object edit, Object[] array)
+        {
+            this.edit = edit;
+            this.array = array;
+        }
+    }
+
+    private PersistentVector(int count, int shift, Node root, Object[] tail)
+    {
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty()
+    {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <T> PersistentVector<T> of(T... items)
+    {
+        Builder<T> builder = PersistentVector.<T>empty().toBuilder();
+
+        for(T item : items)
+        {
+            builder.add(item);
+        }
+
+        return builder.build();
+    }
+
+    public Optional<T> get(int index)
+    {
+        return Optional.ofNullable(this.getOrNull(index));
+    }
+
+    /**
+     * @return The item at {@code index}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(int index)
+    {
+        Objects.checkIndex(index, this.count);
+        return (T) this.leafOf(index)[index & MASK];
+    }
+
+    public int length()
+    {
+        return this.count;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.count == 0;
+    }
+
+    /**
+     * @return A vector with {@code item} appended to this one's items.
+     */
+    public PersistentVector<T> add(T item)
+    {
+        if(this.count - this.tailOffset() < WIDTH)
+        {
+            Object[] tail = Arrays.copyOf(this.tail, this.tail.length + 1);
+            tail[this.tail.length] = item;
+
+            return new PersistentVector<>(this.count + 1, this.shift, this.root, tail);
+        }
+
+        //  the tail is full, so it moves into the trie and a new one is started
+        Node tailNode = new Node(null, this.tail);
+        Node root;
+        int shift = this.shift;
+
+        if((this.count >>> BITS) > (1 << this.shift))
+        {
+            root = new Node(null, new Object[WIDTH]);
+            root.array[0] = this.root;
+            root.array[1] = PersistentVector.newPath(null, this.shift, tailNode);
+            shift += BITS;
+        }
+        else
+        {
+            root = this.pushTail(this.shift, this.root, tailNode);
+        }
+
+        return new PersistentVector<>(this.count + 1, shift, root, new Object[] { item });
+    }
+
+    /**
+     * @return A vector with {@code item} at {@code index} instead of this one's item.
+     */
+    public PersistentVector<T> set(int index, T item)
+    {
+        Objects.checkIndex(index, this.count);
+
+        if(index >= this.tailOffset())
+        {
+            Object[] tail = this.tail.clone();
+            tail[index & MASK] = item;
+
+            return new PersistentVector<>(this.count, this.shift, this.root, tail);
+        }
+
+        return new PersistentVector<>(this.count, this.shift, PersistentVector.set(this.shift, this.root, index, item), this.tail);
+    }
+
+    /**
+     * @return A vector without this one's last item.
+     * @throws IllegalStateException If the vector is empty.
+     */
+    public PersistentVector<T> removeLast()
+    {
+        if(this.count == 0) throw new IllegalStateException("the vector is empty");
+        if(this.count == 1) return PersistentVector.empty();
+
+        if(this.count - this.tailOffset() > 1)
+        {
+            return new PersistentVector<>(this.count - 1, this.shift, this.root, Arrays.copyOf(this.tail, this.tail.length - 1));
+        }
+
+        //  the tail becomes empty, so the trie's last leaf is taken back as the new tail
+        Object[] tail = this.leafOf(this.count - 2);
+        Node root = this.popTail(this.shift, this.root);
+        int shift = this.shift;
+
+        if(root == null) root = EMPTY_NODE;
+        if(shift > BITS && root.array[1] == null)
+        {
+            root = (Node) root.array[0];
+            shift -= BITS;
+        }
+
+        return new PersistentVector<>(this.count - 1, shift, root, tail);
+    }
+
+    /**
+     * @return A builder starting with this vector's items. The vector itself is not changed by it.
+     */
+    public Builder<T> toBuilder()
+    {
+        return new Builder<>(this);
+    }
+
+    /**
+     * Performs {@code action} on every item of the vector, in order, a leaf at a time.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action)
+    {
+        for(int i = 0; i < this.count; i += WIDTH)
+        {
+            Object[] leaf = this.leafOf(i);
+            int end = Math.min(WIDTH, this.count - i);
+
+            for(int o = 0; o < end; o++)
+            {
+                action.accept((T) leaf[o]);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new Iterator<>()
+        {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext()
+            {
+                return this.index < PersistentVector.this.count;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next()
+            {
+                if(this.index >= PersistentVector.this.count) throw new NoSuchElementException();
+                if((this.index & MASK) == 0) this.leaf = PersistentVector.this.leafOf(this.index);
+
+                return (T) this.leaf[this.index++ & MASK];
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(this.iterator(), this.count, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T[] toArray()
+    {
+        Object[] array = new Object[this.count];
+
+        for(int i = 0; i < this.count; i += WIDTH)
+        {
+            System.arraycopy(this.leafOf(i), 0, array, i, Math.min(WIDTH, this.count - i));
+        }
+
+        return (T[]) array;
+    }
+
+    /**
+     * Writes the items of the vector to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the vector to {@code out} as {@link #toString()} does, one at a time, stopping with an
+     * ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.ARRAY);
+        for(Iterator<T> items = this.iterator(); items.hasNext();)
+        {
+            if(!renderer.add(items.next())) break;
+        }
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = 1;
+
+        for(int i = 0; i < this.count; i++)
+        {
+            hash = 31 * hash + Objects.hashCode(this.getOrNull(i));
+        }
+
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(o == this) return true;
+        if(!(o instanceof PersistentVector)) return false;
+        PersistentVector<?> oVector = (PersistentVector<?>) o;
+
+        if(oVector.count != this.count) return false;
+        for(int i = 0; i < this.count; i++)
+        {
+            if(!Objects.equals(oVector.getOrNull(i), this.getOrNull(i))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The index of the first item held by the tail.
+     */
+    private int tailOffset()
+    {
+        return PersistentVector.tailOffset(this.count);
+    }
+
+    private static int tailOffset(int count)
+    {
+        return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * @return The array holding the item at {@code index}, either the tail or a leaf of the trie.
+     */
+    private Object[] leafOf(int index)
+    {
+        if(index >= this.tailOffset()) return this.tail;
+
+        Node node = this.root;
+        for(int level = this.shift; level > 0; level -= BITS)
+        {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+
+        return node.array;
+    }
+
+    private Node pushTail(int level, Node parent, Node tailNode)
+    {
+        int sub = ((this.count - 1) >>> level) & MASK;
+        Node node = new Node(null, parent.array.clone());
+
+        if(level == BITS)
+        {
+            node.array[sub] = tailNode;
+        }
+        else
+        {
+            Node child = (Node) parent.array[sub];
+            node.array[sub] = child != null ? this.pushTail(level - BITS, child, tailNode) : PersistentVector.newPath(null, level - BITS, tailNode);
+        }
+
+        return node;
+    }
+
+    private Node popTail(int level, Node node)
+    {
+        int sub = ((this.count - 2) >>> level) & MASK;
+
+        if(level > BITS)
+        {
+            Node child = this.popTail(level - BITS, (Node) node.array[sub]);
+            if(child == null && sub == 0) return null;
+
+            Node copy = new Node(null, node.array.clone());
+            copy.array[sub] = child;
+            return copy;
+        }
+        if(sub == 0) return null;
+
+        Node copy = new Node(null, node.array.clone());
+        copy.array[sub] = null;
+        return copy;
+    }
+
+    private static Node set(int level, Node node, int index, Object item)
+    {
+        Node copy = new Node(null, node.array.clone());
+
+        if(level == 0)
+        {
+            copy.array[index & MASK] = item;
+        }
+        else
+        {
+            int sub = (index >>> level) & MASK;
+            copy.array[sub] = PersistentVector.set(level - BITS, (Node) node.array[sub], index, item);
+        }
+
+        return copy;
+    }
+
+    /**
+     * @return A chain of single-child nodes {@code level} deep, ending at {@code node}.
+     */
+    private static Node newPath(Object edit, int level, Node node)
+    {
+        if(level == 0) return node;
+
+        Node path = new Node(edit, new Object[WIDTH]);
+        path.array[0] = PersistentVector.newPath(edit, level - BITS, node);
+        return path;
+    }
+
+    /**
+     * A mutable, single-threaded view used to build a vector quickly. It changes the nodes it created itself in place
+     * and copies the shared ones only once, the first time it touches them. Once {@link #build()} is called the builder
+     * can no longer be used.
+     */
+    public static final class Builder<T>
+    {
+        private Object edit = new Object();
+        private int count, shift;
+        private Node root;
+        private Object[] tail;
+
+        private Builder(PersistentVector<T> vector)
+        {
+            this.count = vector.count;
+            this.shift = vector.shift;
+            this.root = vector.root;
+            this.tail = Arrays.copyOf(vector.tail, WIDTH);
+        }
+
+        public Builder<T> add(T item)
+        {
+            this.ensureOpen();
+
+            if(this.count - PersistentVector.tailOffset(this.count) < WIDTH)
+            {
+                this.tail[this.count & MASK] = item;
+                this.count++;
+                return this;
+            }
+
+            Node tailNode = new Node(this.edit, this.tail);
+            this.tail = new Object[WIDTH];
+            this.tail[0] = item;
+
+            if((this.count >>> BITS) > (1 << this.shift))
+            {
+                Node root = new Node(this.edit, new Object[WIDTH]);
+                root.array[0] = this.root;
+                root.array[1] = PersistentVector.newPath(this.edit, this.shift, tailNode);
+
+                this.root = root;
+                this.shift += BITS;
+            }
+            else
+            {
+                this.root = this.pushTail(this.shift, this.root, tailNode);
+            }
+
+            this.count++;
+            return this;
+        }
+
+        public Builder<T> set(int index, T item)
+        {
+            this.ensureOpen();
+            Objects.checkIndex(index, this.count);
+
+            if(index >= PersistentVector.tailOffset(this.count))
+            {
+                this.tail[index & MASK] = item;
+            }
+            else
+            {
+                this.root = this.set(this.shift, this.root, index, item);
+            }
+
+            return this;
+        }
+
+        public int length()
+        {
+            return this.count;
+        }
+
+        /**
+         * @return The built vector. The builder can no longer be used afterwards.
+         */
+        public PersistentVector<T> build()
+        {
+            this.ensureOpen();
+            this.edit = null;
+
+            int tailCount = this.count - PersistentVector.tailOffset(this.count);
+            return this.count == 0 ? PersistentVector.empty() : new PersistentVector<>(this.count, this.shift, this.root, Arrays.copyOf(this.tail, tailCount));
+        }
+
+        private void ensureOpen()
+        {
+            if(this.edit == null) throw new IllegalStateException("the builder has already been built");
+        }
+
+        private Node editable(Node node)
+        {
+            return node.edit == this.edit ? node : new Node(this.edit, node.array.clone());
+        }
+
+        private Node pushTail(int level, Node parent, Node tailNode)
+        {
+            int sub = ((this.count - 1) >>> level) & MASK;
+            Node node = this.editable(parent);
+
+            if(level == BITS)
+            {
+                node.array[sub] = tailNode;
+            }
+            else
+            {
+                Node child = (Node) node.array[sub];
+                node.array[sub] = child != null ? this.pushTail(level - BITS, child, tailNode) : PersistentVector.newPath(this.edit, level - BITS, tailNode);
+            }
+
+            return node;
+        }
+
+        private Node set(int level, Node node, int index, Object item)
+        {
+            Node editable = this.editable(node);
+
+            if(level == 0)
+            {
+                editable.array[index & MASK] = item;
+            }
+            else
+            {
+                int sub = (index >>> level) & MASK;
+                editable.array[sub] = this.set(level - BITS, (Node) editable.array[sub], index, item);
+            }
+
+            return editable;
+        }
+    }
+}
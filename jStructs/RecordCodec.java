@@ -0,0 +1,81 @@
+package jStructs;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts items to and from fixed-width binary records, for structures that keep their items outside of the Java heap
+ * (see {@code OffHeapArrList}). Every record written by a codec must take exactly {@link #size()} bytes.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public interface RecordCodec<T>
+{
+    RecordCodec<Integer> INT = new RecordCodec<>()
+    {
+        public int size()
+        {
+            return Integer.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Integer item)
+        {
+            buffer.putInt(offset, item);
+        }
+
+        public Integer read(ByteBuffer buffer, int offset)
+        {
+            return buffer.getInt(offset);
+        }
+    };
+
+    RecordCodec<Long> LONG = new RecordCodec<>()
+    {
+        public int size()
+        {
+            return Long.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Long item)
+        {
+            buffer.putLong(offset, item);
+        }
+
+        public Long read(ByteBuffer buffer, int offset)
+        {
+            return buffer.getLong(offset);
+        }
+    };
+
+    RecordCodec<Double> DOUBLE = new RecordCodec<>()
+    {
+        public int size()
+        {
+            return Double.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Double item)
+        {
+            buffer.putDouble(offset, item);
+        }
+
+        public Double read(ByteBuffer buffer, int offset)
+        {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * @return The amount of bytes a single record takes.
+     */
+    int size();
+
+    /**
+     * Writes {@code item} into {@code buffer}, starting at the absolute position {@code offset}. The buffer's position
+     * and limit must not be changed, and the buffer must not be kept after the call returns.
+     */
+    void write(ByteBuffer buffer, int offset, T item);
+
+    /**
+     * Reads the item stored in {@code buffer}, starting at the absolute position {@code offset}. The buffer's position
+     * and limit must not be changed, and the buffer must not be kept after the call returns.
+     */
+    T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,177 @@
+package jStructs;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+/**
+ * The binary file format lists are saved in: a 32 byte header followed by the records written by a
+ * {@code RecordCodec}, back to back. Everything is little-endian. The header holds a magic number, the format version,
+ * the record size and the amount of records.
+ * <p>
+ * Records are written and read through {@code MappedByteBuffer} windows of about 64MB, so no intermediate copies are
+ * made and large files never have to be mapped at once.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class RecordFile
+{
+    static final int HEADER_BYTES = 32;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int MAGIC = 0x4A535452, VERSION = 1;
+    private static final int WINDOW_BYTES = 1 << 26;
+
+    private RecordFile(){}
+
+    /**
+     * Replaces the file at {@code path} with the {@code count} items returned by {@code items}, and forces them to disk
+     * before returning. They are written to a temporary file in the same directory, which is then renamed over
+     * {@code path} atomically, so the old file stays whole until the new one is complete. That also keeps
+     * {@code items} readable while saving, even when they are mapped from {@code path} itself.
+     */
+    static <T> void write(Path path, RecordCodec<T> codec, int count, IntFunction<T> items) throws IOException
+    {
+        Path target = path.toAbsolutePath(), directory = target.getParent();
+        Path temporary = Files.createTempFile(directory, target.getFileName() + ".", ".tmp");
+
+        try
+        {
+            RecordFile.writeRecords(temporary, codec, count, items);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }catch(Throwable ex)
+        {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+
+        RecordFile.forceDirectory(directory);
+    }
+
+    private static <T> void writeRecords(Path path, RecordCodec<T> codec, int count, IntFunction<T> items) throws IOException
+    {
+        int recordSize = codec.size(), windowRecords = Math.max(1, WINDOW_BYTES / recordSize);
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE))
+        {
+            for(int first = 0; first < count; first += windowRecords)
+            {
+                int records = Math.min(windowRecords, count - first);
+                MappedByteBuffer window = RecordFile.map(channel, FileChannel.MapMode.READ_WRITE, recordSize, first, records);
+
+                for(int i = 0; i < records; i++)
+                {
+                    codec.write(window, i * recordSize, items.apply(first + i));
+                }
+                window.force();
+            }
+
+            //  the header goes last, and only once the records are on disk, so a save that fails half way, even by a
+            //  crash of the machine, never looks like a valid file
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, recordSize).putLong(16, count);
+
+            while(header.hasRemaining())
+            {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Forces the entries of {@code directory} to disk, so a crash can't undo a rename or a new file's creation in it.
+     * Platforms that can't open a directory, like Windows, already make them durable, so there it does nothing.
+     */
+    static void forceDirectory(Path directory) throws IOException
+    {
+        FileChannel channel;
+
+        try
+        {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        }catch(IOException ex)
+        {
+            return;
+        }
+
+        try(channel)
+        {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads every record of the file at {@code path}.
+     * @return A new array holding the decoded items.
+     */
+    static <T> Object[] readAll(Path path, RecordCodec<T> codec) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            int count = RecordFile.readHeader(channel, codec, path);
+            int recordSize = codec.size(), windowRecords = Math.max(1, WINDOW_BYTES / recordSize);
+            Object[] items = new Object[count];
+
+            for(int first = 0; first < count; first += windowRecords)
+            {
+                int records = Math.min(windowRecords, count - first);
+                MappedByteBuffer window = RecordFile.map(channel, FileChannel.MapMode.READ_ONLY, recordSize, first, records);
+
+                for(int i = 0; i < records; i++)
+                {
+                    items[first + i] = codec.read(window, i * recordSize);
+                }
+            }
+
+            return items;
+        }
+    }
+
+    /**
+     * Checks the header of the file open on {@code channel} against {@code codec}.
+     * @return The amount of records in the file.
+     * @throws IOException If the file is not a record file, or was written with a different record size.
+     */
+    static int readHeader(FileChannel channel, RecordCodec<?> codec, Path path) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+
+        while(header.hasRemaining())
+        {
+            if(channel.read(header, header.position()) < 0) throw new IOException(path + " is not a jStructs record file");
+        }
+
+        if(header.getInt(0) != MAGIC) throw new IOException(path + " is not a jStructs record file");
+        if(header.getInt(4) != VERSION) throw new IOException(path + " has unsupported format version " + header.getInt(4));
+        if(header.getInt(8) != codec.size())
+        {
+            throw new IOException(path + " holds " + header.getInt(8) + " byte records, but the codec writes " + codec.size());
+        }
+
+        long count = header.getLong(16);
+        if(count < 0 || count > Integer.MAX_VALUE || channel.size() < HEADER_BYTES + count * codec.size())
+        {
+            throw new IOException(path + " is truncated or corrupt");
+        }
+
+        return (int) count;
+    }
+
+    /**
+     * Maps {@code records} records of the file, starting at record {@code first}.
+     */
+    static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, int recordSize, int first, int records) throws IOException
+    {
+        MappedByteBuffer buffer = channel.map(mode, HEADER_BYTES + (long) first * recordSize, (long) records * recordSize);
+        buffer.order(ORDER);
+
+        return buffer;
+    }
+}
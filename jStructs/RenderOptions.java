@@ -0,0 +1,72 @@
+package jStructs;
+
+/**
+ * How much of a structure {@code render} and {@code writeTo} write: at most {@code maxElements} elements and
+ * {@code maxChars} characters, followed by {@code ellipsis} when anything was left out. Options are immutable; the
+ * {@code with} methods return changed copies.
+ * <p>
+ * {@code toString} renders with {@link #DEFAULT}, which has no limits unless the {@code jstructs.render.limit} system
+ * property sets an element limit, like {@code -Djstructs.render.limit=100}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public final class RenderOptions
+{
+    public static final RenderOptions DEFAULT = new RenderOptions(Integer.getInteger("jstructs.render.limit", Integer.MAX_VALUE),
+            Long.MAX_VALUE, "...");
+
+    private final int maxElements;
+    private final long maxChars;
+    private final String ellipsis;
+
+    private RenderOptions(int maxElements, long maxChars, String ellipsis)
+    {
+        if(maxElements < 0) throw new IllegalArgumentException("the element limit can't be negative: " + maxElements);
+        if(maxChars < 0) throw new IllegalArgumentException("the character limit can't be negative: " + maxChars);
+
+        this.maxElements = maxElements;
+        this.maxChars = maxChars;
+        this.ellipsis = ellipsis;
+    }
+
+    /**
+     * @return The default options, writing at most {@code maxElements} elements.
+     */
+    public static RenderOptions limit(int maxElements)
+    {
+        return DEFAULT.withMaxElements(maxElements);
+    }
+
+    public RenderOptions withMaxElements(int maxElements)
+    {
+        return new RenderOptions(maxElements, this.maxChars, this.ellipsis);
+    }
+
+    /**
+     * @param maxChars The amount of characters written before the output is cut off, not counting the ellipsis and the
+     * closing bracket.
+     */
+    public RenderOptions withMaxChars(long maxChars)
+    {
+        return new RenderOptions(this.maxElements, maxChars, this.ellipsis);
+    }
+
+    public RenderOptions withEllipsis(String ellipsis)
+    {
+        return new RenderOptions(this.maxElements, this.maxChars, ellipsis);
+    }
+
+    public int getMaxElements()
+    {
+        return this.maxElements;
+    }
+
+    public long getMaxChars()
+    {
+        return this.maxChars;
+    }
+
+    public String getEllipsis()
+    {
+        return this.ellipsis;
+    }
+}
@@ -0,0 +1,156 @@
+package jStructs;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the elements of a structure to an {@code Appendable} one at a time, in one of the structures' formats, and
+ * stops with an ellipsis once the limits of its {@code RenderOptions} are reached. Nothing is built up in between, so
+ * rendering is linear in the amount written, and a structure that is cut off is not walked any further.
+ * <p>
+ * A structure adds its elements until {@link #add(Object)} returns {@code false}, then calls {@link #finish()}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class Renderer
+{
+    /**
+     * {@code [a, b, c]}, like {@code Arrays.toString}.
+     */
+    static final Format ARRAY = new Format("[", "]", "", "", ", ", "[]");
+    /**
+     * {@code (a) -> (b) -> (c)}, like a chain of {@code SinglyNode}s.
+     */
+    static final Format SINGLY = new Format("", "", "(", ")", " -> ", "{}");
+    /**
+     * {@code {a} <-> {b} <-> {c}}, like a chain of {@code DoublyNode}s.
+     */
+    static final Format DOUBLY = new Format("", "", "{", "}", " <-> ", "{}");
+
+    private final Appendable out;
+    private final RenderOptions options;
+    private final Format format;
+    private int elements;
+    private long chars;
+    private boolean cut;
+
+    static final class Format
+    {
+        private final String open, close, before, after, separator, empty;
+
+        private Format(String open, String close, String before, String after, String separator, String empty)
+        {
+            this.open = open;
+            this.close = close;
+            this.before = before;
+            this.after = after;
+            this.separator = separator;
+            this.empty = empty;
+        }
+    }
+
+    /**
+     * Writes a structure to {@code out} with {@code options}.
+     */
+    interface Source
+    {
+        void writeTo(Appendable out, RenderOptions options) throws IOException;
+    }
+
+    Renderer(Appendable out, RenderOptions options, Format format)
+    {
+        this.out = out;
+        this.options = options;
+        this.format = format;
+    }
+
+    /**
+     * @return What {@code source} writes with {@code options}, as a {@code String}.
+     */
+    static String render(Source source, RenderOptions options)
+    {
+        StringBuilder builder = new StringBuilder();
+
+        try
+        {
+            source.writeTo(builder, options);
+        }catch(IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the next element, unless a limit was reached.
+     * @return Whether the structure should keep adding elements.
+     */
+    boolean add(Object value) throws IOException
+    {
+        if(this.cut) return false;
+
+        if(this.elements == this.options.getMaxElements())
+        {
+            this.write(this.elements == 0 ? this.format.open : this.format.separator);
+            this.cut();
+            return false;
+        }
+
+        this.write(this.elements == 0 ? this.format.open : this.format.separator);
+        this.write(this.format.before);
+        this.write(String.valueOf(value));
+        this.write(this.format.after);
+        this.elements++;
+
+        return !this.cut;
+    }
+
+    boolean add(long value) throws IOException
+    {
+        return this.add((Object) Long.toString(value));
+    }
+
+    boolean add(double value) throws IOException
+    {
+        return this.add((Object) Double.toString(value));
+    }
+
+    /**
+     * Closes the output, or writes the format's empty text if no element was added.
+     */
+    void finish() throws IOException
+    {
+        if(this.elements == 0 && !this.cut)
+        {
+            this.out.append(this.format.empty);
+            return;
+        }
+
+        this.out.append(this.format.close);
+    }
+
+    /**
+     * Writes as much of {@code text} as the character limit allows, cutting the output off if it doesn't fit.
+     */
+    private void write(String text) throws IOException
+    {
+        if(this.cut) return;
+
+        long room = this.options.getMaxChars() - this.chars;
+        if(text.length() <= room)
+        {
+            this.out.append(text);
+            this.chars += text.length();
+            return;
+        }
+
+        this.out.append(text, 0, (int) room);
+        this.chars += room;
+        this.cut();
+    }
+
+    private void cut() throws IOException
+    {
+        this.out.append(this.options.getEllipsis());
+        this.cut = true;
+    }
+}
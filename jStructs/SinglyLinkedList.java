@@ -1,16 +1,33 @@
 package jStructs;
+import java.io.IOException;
 import java.lang.annotation.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.lang.reflect.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
  */
 public class SinglyLinkedList<T, T1>
 {
-    private SinglyNode<T> current;
+    private SinglyNode<T> current, head, tail;
+    private int size, index, modCount, stamp = -1;
+    private int hash = ChainHash.EMPTY, hashLength, hashStamp;
+    private Chain chain;
+    private int chainVersion;
     private T1 eventClassInstance;
-    private Class<T1> eventClass;
+    private MethodHandle[] traverseHandlers = EventHandlers.NONE, nullTraverseHandlers = EventHandlers.NONE,
+            setHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, SinglyLinkedList.class);
 
     public SinglyLinkedList(){}
 
@@ -67,10 +84,27 @@ public class SinglyLinkedList<T, T1>
         return toReturn;
     }
 
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClass The event object, or {@code null} to stop firing events.
+     */
     public void setEventClass(T1 eventClass)
     {
         this.eventClassInstance = eventClass;
-        this.eventClass = (Class<T1>) this.eventClassInstance.getClass();
+
+        this.traverseHandlers = EventHandlers.bind(eventClass, TraverseEvent.class, LIST_TYPE);
+        this.nullTraverseHandlers = EventHandlers.bind(eventClass, NullTraverseEvent.class, LIST_TYPE);
+        this.setHandlers = EventHandlers.bind(eventClass, SetEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the traversing call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event));
     }
 
     /**
@@ -82,117 +116,323 @@ public class SinglyLinkedList<T, T1>
     public void traverseNext(int amount)
     {
         SinglyNode<T> current = this.current;
-        boolean nullTraversed = false;
 
         for(int i = 0; i < amount; i++)
         {
-            current = current.getNext().orElse(null);
-            this.setCurrent(current, false);
+            current = current.getNextOrNull();
 
             if(current == null)
             {
+                Metrics.traversed(this, i);
+                this.setCurrent(null, false);
                 this.fire(Event.NULL_TRAVERSE);
-                nullTraversed = true;
-                break;
+                return;
             }
         }
 
-        if(!nullTraversed) this.fire(Event.TRAVERSE);
+        Metrics.traversed(this, amount);
+        this.index += amount;
+        this.setCurrent(current, false);
+        this.fire(Event.TRAVERSE);
     }
 
     /**
-     Traverses to the end of the list.
+     Traverses to the last node of the list, without walking to it.
      */
     public void traverseToEnd()
     {
-        this.traverseNext(this.length());
+        this.count();
+
+        this.setCurrent(this.tail, false);
+        if(this.tail != null) this.index = this.size - 1;
+        this.fire(Event.TRAVERSE);
     }
 
     /**
-     Sets the list's current node.
+     Sets the list's current node. It also becomes the list's head.
      @param current The node to set the current node as. {@code null} is a valid value.
      */
     public void setCurrent(SinglyNode<T> current)
     {
+        this.head = current;
+        this.index = 0;
+        this.stamp = this.modCount - 1;
+
         this.setCurrent(current, true);
     }
 
     private void setCurrent(SinglyNode<T> current, boolean fire)
     {
         this.current = current;
+        this.hashStamp = this.modCount - 1;
         if(fire) this.fire(Event.SET);
     }
 
     /**
-     * @return The amount of nodes in the list.
+     * @return The amount of nodes from the current node to the end of the list. It is kept up to date by the list's own
+     * methods, so it is only counted again after its nodes were changed through {@code SinglyNode}.
      */
     public int length()
+    {
+        this.count();
+        return this.current == null ? 0 : this.size - this.index;
+    }
+
+    /**
+     * @return An {@code Optional} containing the list's first node: the one it was created from or last set to,
+     * unless nodes were added before it.
+     */
+    public Optional<SinglyNode<T>> getHead()
+    {
+        this.count();
+        return Optional.ofNullable(this.head);
+    }
+
+    /**
+     * @return An {@code Optional} containing the list's last node.
+     */
+    public Optional<SinglyNode<T>> getTail()
+    {
+        this.count();
+        return Optional.ofNullable(this.tail);
+    }
+
+    /**
+     * Links a new node holding {@code value} before the list's head. If the list was empty, it also becomes the current node.
+     */
+    public void addFirst(T value)
+    {
+        this.count();
+        SinglyNode<T> node = new SinglyNode<>(value);
+        boolean hashCurrent = this.hashIsCurrent();
+
+        node.setNext(this.head);
+        this.head = node;
+        if(this.tail == null) this.tail = node;
+
+        if(this.size == 0) this.current = node;
+        else this.index++;
+
+        this.size++;
+        this.stamp = this.changed();
+
+        //  the values from the current node on are the same as before
+        if(this.current == node) this.cacheHash(ChainHash.append(ChainHash.EMPTY, value), 1);
+        else if(hashCurrent) this.cacheHash(this.hash, this.hashLength);
+    }
+
+    /**
+     * Links a new node holding {@code value} after the list's tail, in O(1). If the list was empty, it also becomes the
+     * current node.
+     */
+    public void addLast(T value)
+    {
+        this.count();
+        SinglyNode<T> node = new SinglyNode<>(value), current = this.current;
+        boolean hashCurrent = this.hashIsCurrent();
+
+        if(this.tail == null)
+        {
+            this.head = node;
+            this.current = node;
+            this.index = 0;
+        }
+        else
+        {
+            this.tail.setNext(node);
+        }
+        this.tail = node;
+
+        this.size++;
+        this.stamp = this.changed();
+
+        if(this.current == node) this.cacheHash(ChainHash.append(ChainHash.EMPTY, value), 1);
+        else if(hashCurrent && current != null) this.cacheHash(ChainHash.append(this.hash, value), this.hashLength + 1);
+        else if(hashCurrent) this.cacheHash(this.hash, this.hashLength);
+    }
+
+    /**
+     * Unlinks the list's head. If it was the current node, the current node moves to the next one.
+     * @return An {@code Optional} containing the value of the removed node.
+     */
+    public Optional<T> removeFirst()
+    {
+        this.count();
+        SinglyNode<T> head = this.head, current = this.current;
+        if(head == null) return Optional.empty();
+        boolean hashCurrent = this.hashIsCurrent();
+
+        this.head = head.getNextOrNull();
+        head.setNext(null);
+        if(this.tail == head) this.tail = null;
+
+        if(this.current == head) this.current = this.head;
+        else this.index--;
+
+        this.size--;
+        this.stamp = this.changed();
+
+        if(hashCurrent && current == head)
+        {
+            this.cacheHash(ChainHash.removeFirst(this.hash, this.hashLength, head.getOrNull()), this.hashLength - 1);
+        }
+        else if(hashCurrent)
+        {
+            this.cacheHash(this.hash, this.hashLength);
+        }
+
+        return head.get();
+    }
+
+    /**
+     * Sets the value of the current node. Unlike {@code SinglyNode.set}, it keeps the list's cached hash current, in
+     * O(1).
+     */
+    public void set(T value)
     {
         SinglyNode<T> current = this.current;
-        int length = 0;
+        if(this.hashIsCurrent()) this.hash = ChainHash.replace(this.hash, this.hashLength - 1, current.getOrNull(), value);
+
+        current.set(value);
+        this.track();
+    }
+
+    private boolean hashIsCurrent()
+    {
+        this.sync();
+        return this.hashStamp == this.modCount;
+    }
+
+    /**
+     * Caches {@code hash} as the hash of the {@code length} values from the current node on, until the list changes in a
+     * way it can't follow.
+     */
+    private void cacheHash(int hash, int length)
+    {
+        this.hash = hash;
+        this.hashLength = length;
+        this.hashStamp = this.modCount;
+    }
+
+    /**
+     * Drops the list's cached head, tail, length and hash if its nodes were relinked or given new values by anything but
+     * the list itself, such as {@code SinglyNode.setNext} or another list on the same chain. The nodes' shared
+     * {@code Chain} counter tells it in O(1).
+     */
+    private void sync()
+    {
+        SinglyNode<T> node = this.head != null ? this.head : this.current;
+        Chain chain = node == null ? null : node.chain();
+
+        if(chain != this.chain || (chain != null && chain.version() != this.chainVersion))
+        {
+            this.modCount++;
+            this.track();
+        }
+    }
+
+    /**
+     * Records the current version of the list's nodes' counter, after the list changed them itself.
+     */
+    private void track()
+    {
+        SinglyNode<T> node = this.head != null ? this.head : this.current;
+
+        this.chain = node == null ? null : node.chain();
+        this.chainVersion = this.chain == null ? 0 : this.chain.version();
+    }
+
+    /**
+     * @return The new stamp of the list, after the list changed its own nodes.
+     */
+    private int changed()
+    {
+        this.track();
+        return ++this.modCount;
+    }
+
+    /**
+     * Counts the list again if its nodes changed since it was last counted.
+     */
+    private void count()
+    {
+        this.sync();
+        if(this.stamp == this.modCount) return;
 
-        if(this.current != null) length = 1;
-        while((current = current.getNext().orElse(null)) != null)
+        //  the current node was relinked away from the head, so the list starts over from it
+        if(this.current != null && !this.reaches(this.head, this.current)) this.head = this.current;
+
+        int size = 0;
+        SinglyNode<T> tail = null;
+
+        for(SinglyNode<T> node = this.head; node != null; node = node.getNextOrNull())
         {
-            length ++;
+            if(node == this.current) this.index = size;
+            tail = node;
+            size++;
         }
+        if(this.current == null) this.index = size;
+
+        Metrics.traversed(this, size);
+        this.size = size;
+        this.tail = tail;
+        this.stamp = this.modCount;
+    }
 
-        return length;
+    private boolean reaches(SinglyNode<T> from, SinglyNode<T> node)
+    {
+        for(SinglyNode<T> current = from; current != null; current = current.getNextOrNull())
+        {
+            if(current == node) return true;
+        }
+        return false;
     }
 
     public void fire(Event e)
     {
-        if(this.eventClassInstance == null)
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, null, 0);
+        }
+        else
+        {
+            this.dispatch(e);
+        }
+    }
+
+    private void dispatch(Event e)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
         {
-            return;
+            try
+            {
+                h.invokeExact(this);
+            } catch (Throwable ex) {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
         }
 
-        Method[] methods = this.eventClass.getDeclaredMethods();
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
 
+    private MethodHandle[] handlersOf(Event e)
+    {
         switch(e)
         {
             case NULL_TRAVERSE:
-                for(Method m : methods)
-                {
-                    if(m.getParameterCount() == 1 && m.getDeclaredAnnotation(NullTraverseEvent.class) != null)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-                break;
+                return this.nullTraverseHandlers;
             case SET:
-                for(Method m : methods)
-                {
-                    if(m.getParameterCount() == 1 && m.getDeclaredAnnotation(SetEvent.class) != null)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-                break;
+                return this.setHandlers;
             case TRAVERSE:
-                for(Method m : methods)
-                {
-                    if(m.getParameterCount() == 1 && m.getDeclaredAnnotation(TraverseEvent.class) != null)
-                    {
-                        try
-                        {
-                            m.invoke(this.eventClassInstance, this);
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-                break;
+                return this.traverseHandlers;
+            default:
+                return EventHandlers.NONE;
         }
     }
 
@@ -204,23 +444,172 @@ public class SinglyLinkedList<T, T1>
         return Optional.ofNullable(this.current);
     }
 
+    /**
+     * @return A {@code Spliterator} over the values from the current node to the end of the list. It splits by copying
+     * batches of values into arrays, so parallel streams only pay for walking the list once.
+     */
+    public Spliterator<T> spliterator()
+    {
+        Iterator<T> values = new Iterator<>()
+        {
+            private SinglyNode<T> next = SinglyLinkedList.this.current;
+
+            public boolean hasNext()
+            {
+                return this.next != null;
+            }
+
+            public T next()
+            {
+                if(this.next == null) throw new NoSuchElementException();
+
+                T value = this.next.getOrNull();
+                this.next = this.next.getNextOrNull();
+
+                return value;
+            }
+        };
+
+        return Spliterators.spliterator(values, this.current == null ? 0 : this.length(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Performs {@code action} on every value from the current node to the end of the list, without allocating.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        for(SinglyNode<T> node = this.current; node != null; node = node.getNextOrNull())
+        {
+            action.accept(node.getOrNull());
+        }
+    }
+
+    /**
+     * @return A new {@code Cursor} on the list's current node.
+     */
+    public Cursor<T> cursor()
+    {
+        return new Cursor<T>().reset(this.current);
+    }
+
+    /**
+     * A reusable position in a chain of {@code SinglyNode}s. Moving it allocates nothing, and {@link #reset(SinglyNode)}
+     * lets a single cursor walk any amount of chains.
+     */
+    public static final class Cursor<T>
+    {
+        private SinglyNode<T> node;
+
+        /**
+         * Moves the cursor so the next call to {@link #next()} returns the value of {@code node}.
+         * @return This cursor.
+         */
+        public Cursor<T> reset(SinglyNode<T> node)
+        {
+            this.node = node;
+            return this;
+        }
+
+        public boolean hasNext()
+        {
+            return this.node != null;
+        }
+
+        /**
+         * @return The value of the node the cursor is on, moving it to the next node.
+         */
+        public T next()
+        {
+            if(this.node == null) throw new NoSuchElementException();
+
+            T value = this.node.getOrNull();
+            this.node = this.node.getNextOrNull();
+
+            return value;
+        }
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * @return Whether {@code o} is a {@code SinglyLinkedList} holding equal values in the same order, from each list's
+     * current node to its end. Lists with different hashes or lengths are told apart without comparing values.
+     */
     public boolean equals(Object o)
     {
-        return this.getCurrent().isPresent() && this.getCurrent().equals(o);
+        if(!(o instanceof SinglyLinkedList)) return false;
+        if(this.current == null) return false;
+
+        SinglyLinkedList<?, ?> oList = (SinglyLinkedList<?, ?>) o;
+        if(this.hashCode() != oList.hashCode() || this.hashLength != oList.hashLength) return false;
+
+        return this.current.equals(oList.current);
+    }
+
+    /**
+     * Writes the values from the current node to the end to {@code out} as {@link #toString()} does, stopping with an
+     * ellipsis after {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values from the current node to the end to {@code out} as {@link #toString()} does, one at a time,
+     * stopping with an ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        if(this.current == null) new Renderer(out, options, Renderer.SINGLY).finish();
+        else this.current.writeTo(out, options);
     }
 
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
     public String toString()
     {
-        return this.getCurrent().isPresent() ? this.getCurrent().get().toString() : "{}";
+        return this.render(RenderOptions.DEFAULT);
     }
 
+    /**
+     * @return The content hash of the values from the current node to the end, as {@code SinglyNode.hashCode} computes
+     * it. The list caches it and keeps it up to date through its own methods, so it is O(1) unless its nodes were
+     * changed through {@code SinglyNode} or its current node moved.
+     */
     public int hashCode()
     {
-        return this.length();
+        if(this.hashIsCurrent()) return this.hash;
+
+        int hash = ChainHash.EMPTY, length = 0;
+        for(SinglyNode<T> node = this.current; node != null; node = node.getNextOrNull())
+        {
+            hash = ChainHash.append(hash, node.getOrNull());
+            length++;
+        }
+
+        Metrics.traversed(this, length);
+        this.cacheHash(hash, length);
+        return hash;
     }
 
     public Object clone()
     {
-        return SinglyLinkedList.from(this.getCurrent().orElse(null));
+        return SinglyLinkedList.from(this.current);
     }
 }
\ No newline at end of file
@@ -1,4 +1,8 @@
 package jStructs;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -10,10 +14,28 @@ public class SinglyNode<T>
     private T value;
     private SinglyNode<T> next;
 
+    /**
+     * The change counter this node shares with the nodes it was linked to, or {@code null} until it is first linked.
+     */
+    private Chain chain;
+
+    private static final VarHandle NEXT;
+
+    static
+    {
+        try
+        {
+            NEXT = MethodHandles.lookup().findVarHandle(SinglyNode.class, "next", SinglyNode.class);
+        }catch(ReflectiveOperationException ex)
+        {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
     public SinglyNode(){}
     public SinglyNode(T value)
     {
-        this.set(value);
+        this.value = value;
     }
 
     /**
@@ -23,6 +45,7 @@ public class SinglyNode<T>
     public void set(T value)
     {
         this.value = value;
+        if(this.chain != null) this.chain = this.chain.changed();
     }
 
     /**
@@ -32,6 +55,42 @@ public class SinglyNode<T>
     public void setNext(SinglyNode<T> node)
     {
         this.next = node;
+
+        if(node != null) this.chain = node.chain = Chain.link(this.chain, node.chain);
+        else if(this.chain != null) this.chain = this.chain.changed();
+    }
+
+    /**
+     * @return The root of the change counter this node shares with its chain, made on first use.
+     */
+    Chain chain()
+    {
+        return this.chain = this.chain == null ? new Chain() : this.chain.root();
+    }
+
+    /**
+     * Links {@code node} after this one if the current link is still {@code expected}, atomically. It is meant for
+     * chains owned by the lock-free structures.
+     */
+    boolean compareAndSetNext(SinglyNode<T> expected, SinglyNode<T> node)
+    {
+        return NEXT.compareAndSet(this, expected, node);
+    }
+
+    /**
+     * Links {@code node} after this one with release semantics, before this node is published to other threads.
+     */
+    void setNextRelease(SinglyNode<T> node)
+    {
+        NEXT.setRelease(this, node);
+    }
+
+    /**
+     * @return The node after this one, read with acquire semantics.
+     */
+    SinglyNode<T> getNextAcquire()
+    {
+        return (SinglyNode<T>) NEXT.getAcquire(this);
     }
 
     /**
@@ -42,6 +101,14 @@ public class SinglyNode<T>
         return Optional.ofNullable(this.next);
     }
 
+    /**
+     * @return The {@code SinglyNode} connected to this one, or {@code null}. Unlike {@link #getNext()}, it allocates nothing.
+     */
+    public SinglyNode<T> getNextOrNull()
+    {
+        return this.next;
+    }
+
     /**
      * @return An {@code Optional<T>} containing the data stored in this node.
      */
@@ -50,78 +117,104 @@ public class SinglyNode<T>
         return Optional.ofNullable(this.value);
     }
 
-    @Override
-    public String toString()
+    /**
+     * @return The data stored in this node, or {@code null}. Unlike {@link #get()}, it allocates nothing.
+     */
+    public T getOrNull()
     {
-        SinglyNode<T> current = this;
-        String toString = "(" + this.value.toString() + ")";
+        return this.value;
+    }
 
-        while((current = current.next) != null)
-        {
-            toString += " -> " + "(" + current.value.toString() + ")";
-        }
+    /**
+     * Writes the values from this node to the end of its chain to {@code out} as {@link #toString()} does, stopping
+     * with an ellipsis after {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
 
-        return toString;
+    /**
+     * Writes the values from this node to the end of its chain to {@code out} as {@link #toString()} does, one at a
+     * time, stopping with an ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.SINGLY);
+        for(SinglyNode<T> node = this; node != null && renderer.add(node.value); node = node.next);
+        renderer.finish();
     }
 
-    @Override
-    public int hashCode()
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
     {
-        return SinglyLinkedList.from(this).length();
+        return Renderer.render(this::writeTo, options);
     }
 
     @Override
-    public boolean equals(Object o)
+    public String toString()
     {
-        if(!(o instanceof SinglyNode))
-        {
-            return false;
-        }
+        return this.render(RenderOptions.DEFAULT);
+    }
 
-        SinglyNode<T> oNode = ((SinglyNode<T>) o), thisNode = this, oCurrent = oNode, thisCurrent = thisNode;
-        int oLength = 1, thisLength = 1;
+    /**
+     * @return The content hash of the values from this node to the end of its chain, computed like
+     * {@code java.util.List.hashCode}. Once the node was linked, the hash is cached on its chain's change counter until
+     * any node of the chain changes, so asking again takes O(1).
+     */
+    @Override
+    public int hashCode()
+    {
+        if(this.chain != null && this.chain.hasHash(this)) return this.chain.hash();
 
-        while((oCurrent = oCurrent.next) != null)
-        {
-            oLength++;
-        }
-        while((thisCurrent = thisCurrent.next) != null)
+        int hash = ChainHash.EMPTY, length = 0;
+        for(SinglyNode<T> node = this; node != null; node = node.next)
         {
-            thisLength++;
+            hash = ChainHash.append(hash, node.value);
+            length++;
         }
 
-        if(oLength != thisLength)
+        Metrics.traversed(this, length);
+        if(this.chain != null) this.chain.cacheHash(this, hash);
+        return hash;
+    }
+
+    /**
+     * @return Whether {@code o} is a {@code SinglyNode} whose chain holds equal values in the same order as this one's,
+     * from each node to the end. It stops at the first difference.
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o) return true;
+        if(!(o instanceof SinglyNode))
         {
             return false;
         }
-        thisCurrent = thisNode;
-        oCurrent = oNode;
 
-        while((oCurrent = oCurrent.next) != null)
+        SinglyNode<?> thisCurrent = this, oCurrent = (SinglyNode<?>) o;
+        for(; thisCurrent != null && oCurrent != null; thisCurrent = thisCurrent.next, oCurrent = oCurrent.next)
         {
-            thisCurrent = thisCurrent.next;
-
-            T oVal = oCurrent.get().isPresent() ?  oCurrent.get().get() : null;
-            T thisVal = thisCurrent.get().isPresent() ? thisCurrent.get().get() : null;
-
-            if(!oVal.equals(thisVal))
+            if(!Objects.equals(thisCurrent.value, oCurrent.value))
             {
                 return false;
             }
         }
 
-        return true;
+        return thisCurrent == null && oCurrent == null;
     }
 
     @Override
     public Object clone()
     {
-        SinglyNode<T> clone = new SinglyNode<>(this.get().isPresent() ? this.get().get() : null), current = this, cloneCurrent = clone;
+        SinglyNode<T> clone = new SinglyNode<>(this.value), current = this, cloneCurrent = clone;
 
         while((current = current.next) != null)
         {
-            cloneCurrent.setNext(new SinglyNode<>(current.get().isPresent() ? current.get().get() : null));
-            cloneCurrent = cloneCurrent.getNext().isPresent() ? cloneCurrent.getNext().get() : null;
+            cloneCurrent.setNext(new SinglyNode<>(current.value));
+            cloneCurrent = cloneCurrent.next;
         }
         return clone;
     }
@@ -0,0 +1,236 @@
+package jStructs;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An indexable skip list laid over a chain of {@code DoublyNode}s. The chain itself is the bottom level; about a
+ * quarter of its nodes get a tower reaching into the levels above, and every link of a tower records how many
+ * positions it skips. Finding the node at a position, or the position of a node, takes O(log n) expected hops instead
+ * of a walk along the chain.
+ * <p>
+ * It has to be told about every node linked into or unlinked from the chain, see {@code DoublyLinkedList.setIndexed}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class SkipIndex<T>
+{
+    private static final int MAX_LEVEL = 16;
+
+    private final Tower<T> header = new Tower<>(null, MAX_LEVEL);
+    private final Map<DoublyNode<T>, Tower<T>> towers = new IdentityHashMap<>();
+    private final Tower<T>[] update = SkipIndex.towers(MAX_LEVEL);
+    private final int[] rank = new int[MAX_LEVEL];
+    private int size;
+
+    /**
+     * A node's levels above the chain. A link that is {@code null} points past the last node, at position {@code size}.
+     */
+    private static final class Tower<T>
+    {
+        private final DoublyNode<T> node;
+        private final Tower<T>[] next;
+        private final int[] span;
+
+        private Tower(DoublyNode<T> node, int height)
+        {
+            this.node = node;
+            this.next = SkipIndex.towers(height);
+            this.span = new int[height];
+        }
+    }
+
+    /**
+     * @return A new array of {@code length} tower links. Arrays of a generic type can't be created directly.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Tower<T>[] towers(int length)
+    {
+        return (Tower<T>[]) new Tower<?>[length];
+    }
+
+    /**
+     * @return A new index over the {@code size} nodes starting at {@code head}.
+     */
+    static <T> SkipIndex<T> of(DoublyNode<T> head, int size)
+    {
+        SkipIndex<T> index = new SkipIndex<>();
+        Tower<T>[] last = SkipIndex.towers(MAX_LEVEL);
+        int[] lastPosition = new int[MAX_LEVEL];
+
+        Arrays.fill(last, index.header);
+        Arrays.fill(lastPosition, -1);
+
+        int position = 0;
+        for(DoublyNode<T> node = head; node != null; node = node.getNextOrNull(), position++)
+        {
+            int height = SkipIndex.randomHeight();
+            if(height == 0) continue;
+
+            Tower<T> tower = new Tower<>(node, height);
+            index.towers.put(node, tower);
+
+            for(int l = 0; l < height; l++)
+            {
+                last[l].next[l] = tower;
+                last[l].span[l] = position - lastPosition[l];
+                last[l] = tower;
+                lastPosition[l] = position;
+            }
+        }
+
+        for(int l = 0; l < MAX_LEVEL; l++)
+        {
+            last[l].span[l] = size - lastPosition[l];
+        }
+        index.size = size;
+
+        return index;
+    }
+
+    /**
+     * @return The node at {@code index}, which must be in range.
+     */
+    DoublyNode<T> seek(DoublyNode<T> head, int index)
+    {
+        Tower<T> tower = this.header;
+        int position = -1;
+
+        for(int l = MAX_LEVEL - 1; l >= 0; l--)
+        {
+            while(tower.next[l] != null && position + tower.span[l] <= index)
+            {
+                position += tower.span[l];
+                tower = tower.next[l];
+            }
+        }
+
+        DoublyNode<T> node = tower == this.header ? head : tower.node;
+        for(int i = Math.max(position, 0); i < index; i++)
+        {
+            node = node.getNextOrNull();
+        }
+
+        return node;
+    }
+
+    /**
+     * @return The position of {@code node}, or -1 if it is not in the indexed chain. A node that was unlinked but still
+     * points into the chain is told apart by the links back to it, so it never gets a position.
+     */
+    int indexOf(DoublyNode<T> node, DoublyNode<T> tail)
+    {
+        DoublyNode<T> current = node;
+        Tower<T> tower;
+        int steps = 0;
+
+        //  walk to the nearest node with a tower, then take the highest link of every tower to the end
+        while((tower = this.towers.get(current)) == null)
+        {
+            DoublyNode<T> next = current.getNextOrNull();
+            if(next == null) return current == tail ? this.size - 1 - steps : -1;
+            if(next.getPrevOrNull() != current) return -1;
+
+            current = next;
+            steps++;
+        }
+
+        int distance = 0;
+        while(true)
+        {
+            int top = tower.next.length - 1;
+            distance += tower.span[top];
+
+            if(tower.next[top] == null) break;
+            tower = tower.next[top];
+        }
+
+        return this.size - distance - steps;
+    }
+
+    /**
+     * Records that {@code node} was linked in at {@code index}.
+     */
+    void inserted(DoublyNode<T> node, int index)
+    {
+        this.findBefore(index);
+
+        int height = SkipIndex.randomHeight();
+        Tower<T> tower = height == 0 ? null : new Tower<>(node, height);
+
+        for(int l = 0; l < MAX_LEVEL; l++)
+        {
+            Tower<T> before = this.update[l];
+
+            if(l < height)
+            {
+                tower.next[l] = before.next[l];
+                tower.span[l] = this.rank[l] + before.span[l] + 1 - index;
+                before.next[l] = tower;
+                before.span[l] = index - this.rank[l];
+            }
+            else
+            {
+                before.span[l]++;
+            }
+        }
+
+        if(tower != null) this.towers.put(node, tower);
+        this.size++;
+    }
+
+    /**
+     * Records that {@code node}, which was at {@code index}, was unlinked.
+     */
+    void removed(DoublyNode<T> node, int index)
+    {
+        this.findBefore(index);
+        Tower<T> tower = this.towers.remove(node);
+
+        for(int l = 0; l < MAX_LEVEL; l++)
+        {
+            Tower<T> before = this.update[l];
+
+            if(tower != null && l < tower.next.length)
+            {
+                before.span[l] += tower.span[l] - 1;
+                before.next[l] = tower.next[l];
+            }
+            else
+            {
+                before.span[l]--;
+            }
+        }
+
+        this.size--;
+    }
+
+    /**
+     * Fills {@code update} with the last tower before {@code index} on every level, and {@code rank} with its position.
+     */
+    private void findBefore(int index)
+    {
+        Tower<T> tower = this.header;
+        int position = -1;
+
+        for(int l = MAX_LEVEL - 1; l >= 0; l--)
+        {
+            while(tower.next[l] != null && position + tower.span[l] < index)
+            {
+                position += tower.span[l];
+                tower = tower.next[l];
+            }
+
+            this.update[l] = tower;
+            this.rank[l] = position;
+        }
+    }
+
+    /**
+     * @return A height from 0 to {@code MAX_LEVEL - 1}, each one a quarter as likely as the one below it.
+     */
+    private static int randomHeight()
+    {
+        return Math.min(Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | 1 << 30) >>> 1, MAX_LEVEL - 1);
+    }
+}
@@ -0,0 +1,596 @@
+package jStructs;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import jStructs.ArrList.Event;
+
+/**
+ * An {@code ArrList} stored as a tiered vector: a row of equally sized blocks, each one a small circular buffer. Every
+ * block but the last is full, so an index still maps to its block and slot with a shift and a mask, and reads and
+ * writes stay O(1). Inserting or removing in the middle only shifts items inside one block and then moves a single
+ * item across each block after it, which is O(sqrt n) instead of the O(n) array copy an {@code ArrList} does.
+ * <p>
+ * The block size is a power of two that follows the square root of the length, so the list reorganizes itself (in
+ * O(n)) whenever it grows or shrinks by about a factor of four. Its events are the same as {@code ArrList}'s, with the
+ * annotated methods taking a {@code TieredArrList} as their first argument, and carry the same items and indexes.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class TieredArrList<T, T1> {
+    private static final int MIN_SHIFT = 4;
+    private static final Object[][] NO_BLOCKS = new Object[0][];
+    private static final int[] NO_HEADS = new int[0];
+
+    private Object[][] blocks = NO_BLOCKS;
+    private int[] heads = NO_HEADS;
+    private int blockCount, shift = MIN_SHIFT, mask = (1 << MIN_SHIFT) - 1, size;
+    private T1 eventClassInstance;
+    private T addedItem, removedItem, setItem;
+    private int addedIndex, removedIndex, setIndex;
+    private MethodHandle[] setHandlers = EventHandlers.NONE, addedHandlers = EventHandlers.NONE,
+            removedHandlers = EventHandlers.NONE, invalidIndexHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, TieredArrList.class);
+    private static final MethodType ITEM_TYPE = MethodType.methodType(void.class, TieredArrList.class, Object.class, int.class);
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AddedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface RemovedEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface InvalidIndexEvent{}
+
+    /**
+     * @return A new {@code TieredArrList} holding the items of {@code array}. The blocks are filled directly, so no
+     * events are fired.
+     */
+    public static <T, T1> TieredArrList<T, T1> from(T[] array)
+    {
+        TieredArrList<T, T1> list = new TieredArrList<>();
+        list.load(array, array.length, TieredArrList.shiftFor(array.length));
+
+        return list;
+    }
+
+    public static <T, T1> TieredArrList<T, T1> from(T1 eventInstance)
+    {
+        TieredArrList<T, T1> list = new TieredArrList<>();
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public static <T, T1> TieredArrList<T, T1> from(T[] array, T1 eventInstance)
+    {
+        TieredArrList<T, T1> list = TieredArrList.from(array);
+        list.setEventClass(eventInstance);
+
+        return list;
+    }
+
+    public void add(T item)
+    {
+        this.makeRoom();
+
+        int last = this.blockCount - 1;
+        this.blocks[last][(this.heads[last] + this.size) & this.mask] = item;
+
+        this.addedItem = item;
+        this.addedIndex = this.size;
+        this.size++;
+
+        this.fire(Event.ADDED);
+    }
+
+    public void add(int index, T item)
+    {
+        Objects.checkIndex(index, this.size + 1);
+        this.makeRoom();
+
+        int b = index >>> this.shift, o = index & this.mask, last = this.blockCount - 1;
+        Object carry = item;
+
+        //  every block before the last is full, so each one hands its last item to the front of the next
+        for(; b < last; b++, o = 0)
+        {
+            Object out = this.blocks[b][(this.heads[b] + this.mask) & this.mask];
+            this.insertInBlock(b, o, this.mask, carry);
+            carry = out;
+        }
+        this.insertInBlock(last, o, this.size - (last << this.shift), carry);
+
+        this.addedItem = item;
+        this.addedIndex = index;
+        this.size++;
+
+        this.fire(Event.ADDED);
+    }
+
+    public void remove()
+    {
+        if(this.size == 0)
+        {
+            this.fire(Event.INVALID_INDEX);
+            return;
+        }
+
+        this.remove(this.size - 1);
+    }
+
+    public void removeAll(T item)
+    {
+        int[] indexes = this.indexesOf(item);
+        int offset = 0;
+        for(int i : indexes)
+        {
+            this.remove(i - offset);
+            offset++;
+        }
+    }
+
+    public void remove(int index)
+    {
+        Objects.checkIndex(index, this.size);
+
+        int b = index >>> this.shift, last = this.blockCount - 1;
+
+        this.removedIndex = index;
+        this.removedItem = this.getOrNull(index);
+
+        this.removeInBlock(b, index & this.mask, b == last ? this.size - (last << this.shift) : this.mask + 1);
+
+        //  refill each block from the front of the next one, so they stay full
+        for(; b < last; b++)
+        {
+            Object[] next = this.blocks[b + 1];
+            int head = this.heads[b + 1];
+
+            this.blocks[b][(this.heads[b] + this.mask) & this.mask] = next[head];
+            next[head] = null;
+            this.heads[b + 1] = (head + 1) & this.mask;
+        }
+        this.size--;
+
+        if(this.size == last << this.shift)
+        {
+            this.blocks[last] = null;
+            this.blockCount--;
+        }
+        if(this.shift > MIN_SHIFT && this.blockCount <= (1 << this.shift) >> 3) this.retier(this.shift - 1);
+
+        this.fire(Event.REMOVED);
+    }
+
+    public void set(int index, T item)
+    {
+        Objects.checkIndex(index, this.size);
+
+        int b = index >>> this.shift;
+        this.blocks[b][(this.heads[b] + index) & this.mask] = item;
+
+        this.setIndex = index;
+        this.setItem = item;
+        this.fire(Event.SET);
+    }
+
+    public Optional<T> get(int index)
+    {
+        return Optional.ofNullable(this.getOrNull(index));
+    }
+
+    /**
+     * @return The item at {@code index}, or {@code null}. Unlike {@link #get(int)}, it allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(int index)
+    {
+        Objects.checkIndex(index, this.size);
+
+        int b = index >>> this.shift;
+        return (T) this.blocks[b][(this.heads[b] + index) & this.mask];
+    }
+
+    /**
+     * Performs {@code action} on every item of the list, in order, without allocating.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action)
+    {
+        for(int b = 0; b < this.blockCount; b++)
+        {
+            Object[] block = this.blocks[b];
+            int head = this.heads[b], count = Math.min(this.mask + 1, this.size - (b << this.shift));
+
+            for(int o = 0; o < count; o++)
+            {
+                action.accept((T) block[(head + o) & this.mask]);
+            }
+        }
+    }
+
+    public boolean contains(T item)
+    {
+        for(int i = 0; i < this.size; i++)
+        {
+            if(Objects.equals(this.getOrNull(i), item)) return true;
+        }
+        return false;
+    }
+
+    public int occurrencesOf(T item)
+    {
+        int occurences = 0;
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(Objects.equals(this.getOrNull(i), item)) occurences++;
+        }
+
+        return occurences;
+    }
+
+    public int[] indexesOf(T item)
+    {
+        int[] indexes = new int[this.size];
+        int offset = 0;
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(Objects.equals(this.getOrNull(i), item)) indexes[offset++] = i;
+        }
+
+        return Arrays.copyOf(indexes, offset);
+    }
+
+    public void fire(Event e)
+    {
+        switch(e)
+        {
+            case INVALID_INDEX:
+                this.fire(e, null, -1);
+                break;
+            case REMOVED:
+                this.fire(e, this.removedItem, this.removedIndex);
+                break;
+            case ADDED:
+                this.fire(e, this.addedItem, this.addedIndex);
+                break;
+            case SET:
+                this.fire(e, this.setItem, this.setIndex);
+                break;
+        }
+    }
+
+    private void fire(Event e, Object item, int index)
+    {
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, item, index);
+        }
+        else
+        {
+            this.dispatch(e, item, index);
+        }
+    }
+
+    private void dispatch(Event e, Object item, int index)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                if(e == Event.INVALID_INDEX)
+                {
+                    h.invokeExact(this);
+                }
+                else
+                {
+                    h.invokeExact(this, item, index);
+                }
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case SET:
+                return this.setHandlers;
+            case ADDED:
+                return this.addedHandlers;
+            case REMOVED:
+                return this.removedHandlers;
+            case INVALID_INDEX:
+                return this.invalidIndexHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    public void clear()
+    {
+        this.blocks = NO_BLOCKS;
+        this.heads = NO_HEADS;
+        this.blockCount = 0;
+        this.size = 0;
+        this.setShift(MIN_SHIFT);
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClassInstance The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClassInstance)
+    {
+        this.eventClassInstance = eventClassInstance;
+
+        this.setHandlers = EventHandlers.bind(eventClassInstance, SetEvent.class, ITEM_TYPE);
+        this.addedHandlers = EventHandlers.bind(eventClassInstance, AddedEvent.class, ITEM_TYPE);
+        this.removedHandlers = EventHandlers.bind(eventClassInstance, RemovedEvent.class, ITEM_TYPE);
+        this.invalidIndexHandlers = EventHandlers.bind(eventClassInstance, InvalidIndexEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the mutating call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event, item, index));
+    }
+
+    public int length()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return The amount of items each block holds.
+     */
+    public int blockSize()
+    {
+        return this.mask + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T[] toArray()
+    {
+        Object[] array = new Object[this.size];
+        int offset = 0;
+
+        for(int b = 0; b < this.blockCount; b++)
+        {
+            int head = this.heads[b], count = Math.min(this.mask + 1, this.size - offset);
+            int first = Math.min(count, this.mask + 1 - head);
+
+            //  a block's items wrap around its end at most once
+            System.arraycopy(this.blocks[b], head, array, offset, first);
+            System.arraycopy(this.blocks[b], 0, array, offset + first, count - first);
+            offset += count;
+        }
+
+        return (T[]) array;
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the items of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an ellipsis
+     * once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.ARRAY);
+        for(int i = 0; i < this.size && renderer.add(this.getOrNull(i)); i++);
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof TieredArrList)) return false;
+        TieredArrList<?, ?> oList = (TieredArrList<?, ?>) o;
+
+        if(oList.size != this.size || oList.eventClassInstance != this.eventClassInstance) return false;
+        for(int i = 0; i < this.size; i++)
+        {
+            if(!Objects.equals(oList.getOrNull(i), this.getOrNull(i))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return A new list with the same items and event object. No events are fired.
+     */
+    @Override
+    public Object clone()
+    {
+        return TieredArrList.from(this.toArray(), this.eventClassInstance);
+    }
+
+    /**
+     * Makes sure the last block has a free slot, adding a block or moving to bigger blocks when needed.
+     */
+    private void makeRoom()
+    {
+        if(this.size < this.blockCount << this.shift) return;
+
+        if(this.blockCount >= 2 << this.shift)
+        {
+            this.retier(this.shift + 1);
+            if(this.size < this.blockCount << this.shift) return;
+        }
+
+        if(this.blockCount == this.blocks.length)
+        {
+            int capacity = Math.max(4, this.blockCount * 2);
+            this.blocks = Arrays.copyOf(this.blocks, capacity);
+            this.heads = Arrays.copyOf(this.heads, capacity);
+        }
+
+        this.blocks[this.blockCount] = new Object[this.mask + 1];
+        this.heads[this.blockCount] = 0;
+        this.blockCount++;
+    }
+
+    /**
+     * Inserts {@code item} at {@code offset} of a block holding {@code count} items, shifting whichever side is shorter.
+     */
+    private void insertInBlock(int b, int offset, int count, Object item)
+    {
+        Object[] block = this.blocks[b];
+        int head = this.heads[b], mask = this.mask;
+
+        if(offset < count - offset)
+        {
+            for(int o = 0; o < offset; o++)
+            {
+                block[(head + o - 1) & mask] = block[(head + o) & mask];
+            }
+            head = (head - 1) & mask;
+            this.heads[b] = head;
+        }
+        else
+        {
+            for(int o = count; o > offset; o--)
+            {
+                block[(head + o) & mask] = block[(head + o - 1) & mask];
+            }
+        }
+        Metrics.copied(Math.min(offset, count - offset), Metrics.REFERENCE_BYTES);
+
+        block[(head + offset) & mask] = item;
+    }
+
+    /**
+     * Removes the item at {@code offset} of a block holding {@code count} items, shifting whichever side is shorter.
+     */
+    private void removeInBlock(int b, int offset, int count)
+    {
+        Object[] block = this.blocks[b];
+        int head = this.heads[b], mask = this.mask;
+
+        if(offset < count - 1 - offset)
+        {
+            for(int o = offset; o > 0; o--)
+            {
+                block[(head + o) & mask] = block[(head + o - 1) & mask];
+            }
+            block[head] = null;
+            this.heads[b] = (head + 1) & mask;
+        }
+        else
+        {
+            for(int o = offset; o < count - 1; o++)
+            {
+                block[(head + o) & mask] = block[(head + o + 1) & mask];
+            }
+            block[(head + count - 1) & mask] = null;
+        }
+        Metrics.copied(Math.min(offset, count - 1 - offset), Metrics.REFERENCE_BYTES);
+    }
+
+    /**
+     * Rebuilds the list with blocks of {@code 1 << shift} items.
+     */
+    private void retier(int shift)
+    {
+        int oldCapacity = this.blockCount << this.shift;
+        this.load(this.toArray(), this.size, shift);
+        Metrics.resized(this, oldCapacity, this.blockCount << this.shift, this.size, Metrics.REFERENCE_BYTES);
+    }
+
+    private void load(Object[] items, int size, int shift)
+    {
+        this.setShift(shift);
+
+        int blockSize = 1 << shift, blockCount = (size + blockSize - 1) >>> shift;
+        this.blocks = new Object[Math.max(4, blockCount)][];
+        this.heads = new int[this.blocks.length];
+
+        for(int b = 0; b < blockCount; b++)
+        {
+            this.blocks[b] = new Object[blockSize];
+            System.arraycopy(items, b << shift, this.blocks[b], 0, Math.min(blockSize, size - (b << shift)));
+        }
+
+        this.blockCount = blockCount;
+        this.size = size;
+    }
+
+    private void setShift(int shift)
+    {
+        this.shift = shift;
+        this.mask = (1 << shift) - 1;
+    }
+
+    /**
+     * @return The block size, as a shift, that suits a list of {@code size} items: about the square root of it.
+     */
+    private static int shiftFor(int size)
+    {
+        int shift = MIN_SHIFT;
+        while((long) 1 << (2 * shift + 1) < size) shift++;
+
+        return shift;
+    }
+}
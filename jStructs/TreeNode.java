@@ -1,5 +1,11 @@
 package jStructs;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class TreeNode<T>
 {
@@ -42,6 +48,14 @@ public class TreeNode<T>
         return Optional.ofNullable(this.value);
     }
 
+    /**
+     * @return The node's value, or {@code null}. Unlike {@link #get()}, it allocates nothing.
+     */
+    public T getOrNull()
+    {
+        return this.value;
+    }
+
     public void setParent(TreeNode<T> parent)
     {
         this.parent = parent;
@@ -52,6 +66,14 @@ public class TreeNode<T>
         return Optional.ofNullable((this.parent));
     }
 
+    /**
+     * @return The node's parent, or {@code null}. Unlike {@link #getParent()}, it allocates nothing.
+     */
+    public TreeNode<T> getParentOrNull()
+    {
+        return this.parent;
+    }
+
     public void addChild(TreeNode<T> child)
     {
         this.children.add(child);
@@ -59,7 +81,7 @@ public class TreeNode<T>
 
     public TreeNode<T>[] getChildren()
     {
-        return this.children.toArray();
+        return TreeNode.toArray(this.children);
     }
 
     public boolean isAncestorOf(TreeNode<T> node)
@@ -88,11 +110,198 @@ public class TreeNode<T>
         ArrList<TreeNode<T>, ?> children = ArrList.from(parent.getChildren());
         children.removeAll(this);
 
-        return children.toArray();
+        return TreeNode.toArray(children);
+    }
+
+    /**
+     * @return A new array holding the nodes of {@code nodes}, in order.
+     */
+    private static <T> TreeNode<T>[] toArray(ArrList<TreeNode<T>, ?> nodes)
+    {
+        TreeNode<T>[] array = TreeNode.nodes(nodes.length());
+
+        for(int i = 0; i < array.length; i++)
+        {
+            array[i] = nodes.getOrNull(i);
+        }
+
+        return array;
+    }
+
+    /**
+     * @return A new array of {@code length} nodes. Arrays of a generic type can't be created directly.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> TreeNode<T>[] nodes(int length)
+    {
+        return (TreeNode<T>[]) new TreeNode<?>[length];
     }
 
     public Type getType()
     {
         return Type.BRANCH;
     }
+
+    /**
+     * Performs {@code action} on the values of this node and all of its descendants, in pre-order.
+     */
+    public void forEach(Consumer<? super T> action)
+    {
+        Deque<TreeNode<T>> stack = new ArrayDeque<>();
+        stack.push(this);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode<T> node = stack.pop();
+            action.accept(node.value);
+
+            for(int i = node.children.length() - 1; i >= 0; i--)
+            {
+                stack.push(node.children.getOrNull(i));
+            }
+        }
+    }
+
+    /**
+     * @return A {@code Spliterator} over the values of this node and all of its descendants, in pre-order. It splits by
+     * handing off whole subtrees.
+     */
+    public Spliterator<T> spliterator()
+    {
+        return new TreeSpliterator<>(this);
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Walks a forest of pending subtrees. The front of {@code pending} is visited first, so splitting off the front
+     * half keeps the encounter order.
+     * <p>
+     * Its size is exact, but only counted when first asked for. From then on, each split counts the subtrees it hands
+     * off and takes them off its own size.
+     */
+    private static final class TreeSpliterator<T> implements Spliterator<T>
+    {
+        private static final long UNCOUNTED = -1;
+
+        private final Deque<TreeNode<T>> pending = new ArrayDeque<>();
+        private final Deque<TreeNode<T>> visited = new ArrayDeque<>();
+        private long size = UNCOUNTED;
+
+        private TreeSpliterator(TreeNode<T> root)
+        {
+            this.pending.add(root);
+        }
+
+        private TreeSpliterator(){}
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action)
+        {
+            TreeNode<T> node = this.visited.pollFirst();
+
+            if(node == null)
+            {
+                node = this.pending.pollFirst();
+                if(node == null) return false;
+
+                for(int i = node.children.length() - 1; i >= 0; i--)
+                {
+                    this.pending.addFirst(node.children.getOrNull(i));
+                }
+            }
+
+            if(this.size > 0) this.size--;
+            action.accept(node.value);
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit()
+        {
+            //  a single pending subtree gets opened up, its root is visited on its own and its children become splittable
+            if(this.visited.isEmpty() && this.pending.size() == 1 && this.pending.peekFirst().children.length() > 1)
+            {
+                TreeNode<T> node = this.pending.pollFirst();
+                this.visited.add(node);
+
+                for(int i = 0; i < node.children.length(); i++)
+                {
+                    this.pending.addLast(node.children.getOrNull(i));
+                }
+            }
+
+            int half = this.pending.size() / 2;
+            if(half == 0) return null;
+
+            TreeSpliterator<T> prefix = new TreeSpliterator<>();
+            prefix.visited.addAll(this.visited);
+            this.visited.clear();
+
+            for(int i = 0; i < half; i++)
+            {
+                prefix.pending.addLast(this.pending.pollFirst());
+            }
+            if(this.size != UNCOUNTED)
+            {
+                prefix.size = prefix.count();
+                this.size -= prefix.size;
+            }
+
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            if(this.size == UNCOUNTED) this.size = this.count();
+
+            return this.size;
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private long count()
+        {
+            long size = this.visited.size();
+            for(TreeNode<T> node : this.pending)
+            {
+                size += TreeNode.sizeOf(node);
+            }
+
+            return size;
+        }
+    }
+
+    private static long sizeOf(TreeNode<?> node)
+    {
+        Deque<TreeNode<?>> stack = new ArrayDeque<>();
+        long size = 0;
+
+        stack.push(node);
+        while(!stack.isEmpty())
+        {
+            TreeNode<?> current = stack.pop();
+            size++;
+
+            for(int i = 0; i < current.children.length(); i++)
+            {
+                stack.push(current.children.getOrNull(i));
+            }
+        }
+
+        return size;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,756 @@
+package jStructs;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jStructs.DoublyLinkedList.Event;
+
+/**
+ * An unrolled doubly linked list: every node holds a small array of values instead of a single one, so a chain of
+ * millions of values needs a fraction of the nodes, and walking it reads values from the same array most of the time.
+ * A node that fills up is split in two, and one that drops below a quarter full is merged with a neighbour.
+ * <p>
+ * The current position is a single value, not a node. {@link #traverseNext(int)} and {@link #traversePrev(int)} move it
+ * by values, skipping whole nodes where they can, and fire the same events as {@code DoublyLinkedList}'s, with the
+ * annotated methods taking an {@code UnrolledLinkedList} as their only argument.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class UnrolledLinkedList<T, T1>
+{
+    private final int chunkSize;
+    private Chunk head, tail, current;
+    private int offset, size, chunks;
+    private Chunk found;
+    private int foundOffset;
+    private T1 eventClassInstance;
+    private MethodHandle[] traverseNextHandlers = EventHandlers.NONE, traversePrevHandlers = EventHandlers.NONE,
+            nullTraverseHandlers = EventHandlers.NONE, setHandlers = EventHandlers.NONE;
+    private EventBus.Channel eventChannel;
+
+    private static final MethodType LIST_TYPE = MethodType.methodType(void.class, UnrolledLinkedList.class);
+
+    /**
+     * A node of the list, holding up to {@code chunkSize} values in {@code values[0, count)}.
+     */
+    private static final class Chunk
+    {
+        private final Object[] values;
+        private int count;
+        private Chunk prev, next;
+
+        private Chunk(int capacity)
+        {
+            this.values = new Object[capacity];
+        }
+    }
+
+    public UnrolledLinkedList()
+    {
+        this(64);
+    }
+
+    /**
+     * @param chunkSize The amount of values a node holds, at least 4.
+     */
+    public UnrolledLinkedList(int chunkSize)
+    {
+        if(chunkSize < 4) throw new IllegalArgumentException("a node holds at least 4 values: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TraverseNextEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TraversePrevEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface NullTraverseEvent{}
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SetEvent{}
+
+    /**
+     * @return A new {@code UnrolledLinkedList} holding {@code values} in full nodes, with the first value as the current
+     * one. No events are fired.
+     */
+    public static <T, T1> UnrolledLinkedList<T, T1> from(T[] values)
+    {
+        UnrolledLinkedList<T, T1> list = new UnrolledLinkedList<>();
+
+        for(int i = 0; i < values.length; i += list.chunkSize)
+        {
+            Chunk chunk = list.linkAfter(list.tail);
+            chunk.count = Math.min(list.chunkSize, values.length - i);
+            System.arraycopy(values, i, chunk.values, 0, chunk.count);
+        }
+
+        list.size = values.length;
+        list.current = list.head;
+        return list;
+    }
+
+    public static <T, T1> UnrolledLinkedList<T, T1> from(T1 eventClass)
+    {
+        UnrolledLinkedList<T, T1> list = new UnrolledLinkedList<>();
+        list.setEventClass(eventClass);
+
+        return list;
+    }
+
+    public static <T, T1> UnrolledLinkedList<T, T1> from(T[] values, T1 eventClass)
+    {
+        UnrolledLinkedList<T, T1> list = UnrolledLinkedList.from(values);
+        list.setEventClass(eventClass);
+
+        return list;
+    }
+
+    /**
+     * Traverses the specified amount of values previously.
+     * @param length The amount to traverse
+     */
+    public void traversePrev(int length)
+    {
+        Chunk chunk = this.current;
+        int offset = this.offset - length, hops = 0;
+
+        while(chunk != null && offset < 0)
+        {
+            chunk = chunk.prev;
+            if(chunk != null) offset += chunk.count;
+            hops++;
+        }
+
+        Metrics.traversed(this, hops);
+        if(chunk == null)
+        {
+            this.fire(Event.NULL_TRAVERSE);
+            return;
+        }
+
+        this.moveTo(chunk, offset);
+        this.fire(Event.TRAVERSE_PREV);
+    }
+
+    /**
+     * Traverses the specified amount of values next. Traversing past the last value leaves the list without a current
+     * value.
+     * @param length The amount to traverse
+     */
+    public void traverseNext(int length)
+    {
+        Chunk chunk = this.current;
+        int offset = this.offset + length, hops = 0;
+
+        while(chunk != null && offset >= chunk.count)
+        {
+            offset -= chunk.count;
+            chunk = chunk.next;
+            hops++;
+        }
+
+        Metrics.traversed(this, hops);
+        if(chunk == null)
+        {
+            this.fire(Event.NULL_TRAVERSE);
+            this.moveTo(null, 0);
+            return;
+        }
+
+        this.moveTo(chunk, offset);
+        this.fire(Event.TRAVERSE_NEXT);
+    }
+
+    /**
+     * Makes the value at {@code index} the current one.
+     * @throws IndexOutOfBoundsException If {@code index} is not within the list.
+     */
+    public void setCurrent(int index)
+    {
+        this.locate(index);
+        this.moveTo(this.found, this.foundOffset);
+    }
+
+    private void moveTo(Chunk chunk, int offset)
+    {
+        this.current = chunk;
+        this.offset = offset;
+        this.fire(Event.SET);
+    }
+
+    /**
+     * @return An {@code Optional} containing the current value.
+     */
+    public Optional<T> getCurrent()
+    {
+        return Optional.ofNullable(this.getCurrentOrNull());
+    }
+
+    /**
+     * @return The current value, or {@code null}. Unlike {@link #getCurrent()}, it allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public T getCurrentOrNull()
+    {
+        return this.current == null ? null : (T) this.current.values[this.offset];
+    }
+
+    /**
+     * @return The index of the current value, or -1 if there is none. It walks the nodes before it.
+     */
+    public int indexOfCurrent()
+    {
+        if(this.current == null) return -1;
+
+        int index = this.offset;
+        for(Chunk chunk = this.current.prev; chunk != null; chunk = chunk.prev)
+        {
+            index += chunk.count;
+        }
+
+        return index;
+    }
+
+    public Optional<T> get(int index)
+    {
+        return index < 0 || index >= this.size ? Optional.empty() : Optional.ofNullable(this.getOrNull(index));
+    }
+
+    /**
+     * @return The value at {@code index}. Unlike {@link #get(int)}, it allocates nothing.
+     * @throws IndexOutOfBoundsException If {@code index} is not within the list.
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(int index)
+    {
+        this.locate(index);
+        return (T) this.found.values[this.foundOffset];
+    }
+
+    public void set(int index, T value)
+    {
+        this.locate(index);
+        this.found.values[this.foundOffset] = value;
+    }
+
+    public void addFirst(T value)
+    {
+        this.insert(this.head, 0, value);
+    }
+
+    public void addLast(T value)
+    {
+        this.insert(this.tail, this.tail == null ? 0 : this.tail.count, value);
+    }
+
+    /**
+     * Inserts {@code value} at {@code index}, splitting the node it lands in if that one is full.
+     * @throws IndexOutOfBoundsException If {@code index} is not within the list or its length.
+     */
+    public void add(int index, T value)
+    {
+        if(index == this.size)
+        {
+            this.addLast(value);
+            return;
+        }
+
+        this.locate(index);
+        this.insert(this.found, this.foundOffset, value);
+    }
+
+    /**
+     * Inserts {@code value} right after the current value, without walking the list. If there is no current value, it
+     * is added last.
+     */
+    public void addAfterCurrent(T value)
+    {
+        if(this.current == null) this.addLast(value);
+        else this.insert(this.current, this.offset + 1, value);
+    }
+
+    /**
+     * Removes the value at {@code index}, merging its node with a neighbour if it gets too empty.
+     * @return An {@code Optional} containing the removed value.
+     * @throws IndexOutOfBoundsException If {@code index} is not within the list.
+     */
+    public Optional<T> remove(int index)
+    {
+        this.locate(index);
+        return Optional.ofNullable(this.delete(this.found, this.foundOffset));
+    }
+
+    /**
+     * Removes the current value, without walking the list. The value after it becomes the current one, or the value
+     * before it if it was the last.
+     * @return An {@code Optional} containing the removed value.
+     */
+    public Optional<T> removeCurrent()
+    {
+        if(this.current == null) return Optional.empty();
+        return Optional.ofNullable(this.delete(this.current, this.offset));
+    }
+
+    public Optional<T> removeFirst()
+    {
+        return this.size == 0 ? Optional.empty() : Optional.ofNullable(this.delete(this.head, 0));
+    }
+
+    public Optional<T> removeLast()
+    {
+        return this.size == 0 ? Optional.empty() : Optional.ofNullable(this.delete(this.tail, this.tail.count - 1));
+    }
+
+    public void clear()
+    {
+        this.head = this.tail = this.current = null;
+        this.offset = this.size = this.chunks = 0;
+    }
+
+    /**
+     * @return The amount of values in the list, in O(1).
+     */
+    public int length()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return The amount of nodes the values are spread over.
+     */
+    public int chunkCount()
+    {
+        return this.chunks;
+    }
+
+    /**
+     * Inserts {@code value} at {@code offset} of {@code chunk}, which is {@code null} only while the list is empty.
+     */
+    private void insert(Chunk chunk, int offset, T value)
+    {
+        if(chunk == null)
+        {
+            chunk = this.linkAfter(null);
+            this.current = chunk;
+            this.offset = 0;
+        }
+
+        if(chunk.count == this.chunkSize)
+        {
+            Chunk upper = this.split(chunk);
+            if(offset > chunk.count)
+            {
+                offset -= chunk.count;
+                chunk = upper;
+            }
+        }
+
+        System.arraycopy(chunk.values, offset, chunk.values, offset + 1, chunk.count - offset);
+        chunk.values[offset] = value;
+        chunk.count++;
+        this.size++;
+
+        //  the current value keeps being the same value, wherever it was shifted to
+        if(chunk == this.current && offset <= this.offset && chunk.count > 1) this.offset++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T delete(Chunk chunk, int offset)
+    {
+        T value = (T) chunk.values[offset];
+
+        System.arraycopy(chunk.values, offset + 1, chunk.values, offset, chunk.count - offset - 1);
+        chunk.values[--chunk.count] = null;
+        this.size--;
+
+        if(chunk == this.current)
+        {
+            if(offset < this.offset)
+            {
+                this.offset--;
+            }
+            else if(offset == this.offset && this.offset == chunk.count)
+            {
+                //  the removed value was the last of its node, so the current one moves to the next node
+                if(chunk.next != null)
+                {
+                    this.current = chunk.next;
+                    this.offset = 0;
+                }
+                else if(chunk.count > 0)
+                {
+                    this.offset--;
+                }
+                else
+                {
+                    this.current = chunk.prev;
+                    this.offset = chunk.prev == null ? 0 : chunk.prev.count - 1;
+                }
+            }
+        }
+
+        if(chunk.count == 0)
+        {
+            this.unlink(chunk);
+        }
+        else if(chunk.count < this.chunkSize / 4)
+        {
+            int limit = this.chunkSize - this.chunkSize / 4;
+
+            if(chunk.next != null && chunk.count + chunk.next.count <= limit) this.merge(chunk, chunk.next);
+            else if(chunk.prev != null && chunk.prev.count + chunk.count <= limit) this.merge(chunk.prev, chunk);
+        }
+
+        return value;
+    }
+
+    /**
+     * Moves the upper half of {@code chunk} into a new node linked after it.
+     * @return The new node.
+     */
+    private Chunk split(Chunk chunk)
+    {
+        Chunk upper = this.linkAfter(chunk);
+        int half = chunk.count >>> 1;
+
+        upper.count = chunk.count - half;
+        System.arraycopy(chunk.values, half, upper.values, 0, upper.count);
+        Arrays.fill(chunk.values, half, chunk.count, null);
+        chunk.count = half;
+        Metrics.copied(upper.count, Metrics.REFERENCE_BYTES);
+
+        if(this.current == chunk && this.offset >= half)
+        {
+            this.current = upper;
+            this.offset -= half;
+        }
+
+        return upper;
+    }
+
+    /**
+     * Moves every value of {@code upper} to the end of {@code lower}, the node before it, and unlinks {@code upper}.
+     */
+    private void merge(Chunk lower, Chunk upper)
+    {
+        System.arraycopy(upper.values, 0, lower.values, lower.count, upper.count);
+        Metrics.copied(upper.count, Metrics.REFERENCE_BYTES);
+
+        if(this.current == upper)
+        {
+            this.current = lower;
+            this.offset += lower.count;
+        }
+
+        lower.count += upper.count;
+        this.unlink(upper);
+    }
+
+    private Chunk linkAfter(Chunk chunk)
+    {
+        Chunk added = new Chunk(this.chunkSize);
+        added.prev = chunk;
+        added.next = chunk == null ? this.head : chunk.next;
+
+        if(added.next == null) this.tail = added;
+        else added.next.prev = added;
+
+        if(chunk == null) this.head = added;
+        else chunk.next = added;
+
+        this.chunks++;
+        return added;
+    }
+
+    private void unlink(Chunk chunk)
+    {
+        if(chunk.prev == null) this.head = chunk.next;
+        else chunk.prev.next = chunk.next;
+
+        if(chunk.next == null) this.tail = chunk.prev;
+        else chunk.next.prev = chunk.prev;
+
+        this.chunks--;
+    }
+
+    /**
+     * Finds the node holding the value at {@code index}, walking from whichever end is closer, and leaves it in
+     * {@code found} and {@code foundOffset}.
+     */
+    private void locate(int index)
+    {
+        Objects.checkIndex(index, this.size);
+        int hops = 0;
+
+        if(index < this.size >>> 1)
+        {
+            Chunk chunk = this.head;
+            while(index >= chunk.count)
+            {
+                index -= chunk.count;
+                chunk = chunk.next;
+                hops++;
+            }
+
+            this.found = chunk;
+            this.foundOffset = index;
+        }
+        else
+        {
+            Chunk chunk = this.tail;
+            int fromEnd = this.size - 1 - index;
+            while(fromEnd >= chunk.count)
+            {
+                fromEnd -= chunk.count;
+                chunk = chunk.prev;
+                hops++;
+            }
+
+            this.found = chunk;
+            this.foundOffset = chunk.count - 1 - fromEnd;
+        }
+
+        Metrics.traversed(this, hops);
+    }
+
+    /**
+     * Sets the event object. Its annotated methods are resolved once here, so firing an event afterwards is a direct call.
+     * @param eventClass The event object, or {@code null} to stop firing events.
+     */
+    public void setEventClass(T1 eventClass)
+    {
+        this.eventClassInstance = eventClass;
+
+        this.traverseNextHandlers = EventHandlers.bind(eventClass, TraverseNextEvent.class, LIST_TYPE);
+        this.traversePrevHandlers = EventHandlers.bind(eventClass, TraversePrevEvent.class, LIST_TYPE);
+        this.nullTraverseHandlers = EventHandlers.bind(eventClass, NullTraverseEvent.class, LIST_TYPE);
+        this.setHandlers = EventHandlers.bind(eventClass, SetEvent.class, LIST_TYPE);
+    }
+
+    /**
+     * Makes the list publish its events to the specified {@code EventBus} instead of calling the event methods
+     * inside the traversing call.
+     * @param bus The bus to publish to, or {@code null} to go back to synchronous events.
+     */
+    public void setEventBus(EventBus bus)
+    {
+        this.eventChannel = bus == null ? null : bus.channel((event, item, index) -> this.dispatch((Event) event));
+    }
+
+    public void fire(Event e)
+    {
+        if(this.handlersOf(e).length == 0) return;
+
+        if(this.eventChannel != null)
+        {
+            this.eventChannel.publish(e, null, 0);
+        }
+        else
+        {
+            this.dispatch(e);
+        }
+    }
+
+    private void dispatch(Event e)
+    {
+        MethodHandle[] handlers = this.handlersOf(e);
+        long start = Metrics.startListeners();
+
+        for(MethodHandle h : handlers)
+        {
+            try
+            {
+                h.invokeExact(this);
+            }catch(Throwable ex)
+            {
+                Metrics.listenerFailed(this, e, ex);
+                ex.printStackTrace();
+            }
+        }
+
+        Metrics.listenersInvoked(this, e, handlers.length, start);
+    }
+
+    private MethodHandle[] handlersOf(Event e)
+    {
+        switch(e)
+        {
+            case NULL_TRAVERSE:
+                return this.nullTraverseHandlers;
+            case TRAVERSE_NEXT:
+                return this.traverseNextHandlers;
+            case TRAVERSE_PREV:
+                return this.traversePrevHandlers;
+            case SET:
+                return this.setHandlers;
+            default:
+                return EventHandlers.NONE;
+        }
+    }
+
+    /**
+     * Performs {@code action} on every value of the list, in order, without allocating.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action)
+    {
+        for(Chunk chunk = this.head; chunk != null; chunk = chunk.next)
+        {
+            for(int i = 0; i < chunk.count; i++)
+            {
+                action.accept((T) chunk.values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return A new array holding the list's values, in order.
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toArray()
+    {
+        Object[] array = new Object[this.size];
+        int i = 0;
+
+        for(Chunk chunk = this.head; chunk != null; chunk = chunk.next)
+        {
+            System.arraycopy(chunk.values, 0, array, i, chunk.count);
+            i += chunk.count;
+        }
+
+        return (T[]) array;
+    }
+
+    /**
+     * @return A {@code Spliterator} over every value of the list, in order.
+     */
+    public Spliterator<T> spliterator()
+    {
+        Iterator<T> values = new Iterator<>()
+        {
+            private Chunk chunk = UnrolledLinkedList.this.head;
+            private int offset;
+
+            public boolean hasNext()
+            {
+                return this.chunk != null;
+            }
+
+            @SuppressWarnings("unchecked")
+            public T next()
+            {
+                if(this.chunk == null) throw new NoSuchElementException();
+
+                T value = (T) this.chunk.values[this.offset];
+                if(++this.offset == this.chunk.count)
+                {
+                    this.chunk = this.chunk.next;
+                    this.offset = 0;
+                }
+
+                return value;
+            }
+        };
+
+        return Spliterators.spliterator(values, this.size, Spliterator.ORDERED);
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, stopping with an ellipsis after
+     * {@code limit} of them.
+     */
+    public void writeTo(Appendable out, int limit) throws IOException
+    {
+        this.writeTo(out, RenderOptions.limit(limit));
+    }
+
+    /**
+     * Writes the values of the list to {@code out} as {@link #toString()} does, one at a time, stopping with an
+     * ellipsis once a limit of {@code options} is reached.
+     */
+    public void writeTo(Appendable out, RenderOptions options) throws IOException
+    {
+        Renderer renderer = new Renderer(out, options, Renderer.DOUBLY);
+        for(Chunk chunk = this.head; chunk != null; chunk = chunk.next)
+        {
+            for(int i = 0; i < chunk.count; i++)
+            {
+                if(!renderer.add(chunk.values[i])) break;
+            }
+        }
+        renderer.finish();
+    }
+
+    /**
+     * @return What {@link #writeTo(Appendable, RenderOptions)} writes, as a {@code String}.
+     */
+    public String render(RenderOptions options)
+    {
+        return Renderer.render(this::writeTo, options);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.render(RenderOptions.DEFAULT);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.length();
+    }
+
+    /**
+     * @return Whether {@code o} is an {@code UnrolledLinkedList} holding equal values in the same order, however they
+     * are spread over nodes.
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof UnrolledLinkedList)) return false;
+        UnrolledLinkedList<?, ?> oList = (UnrolledLinkedList<?, ?>) o;
+
+        return oList.size == this.size && Arrays.equals(oList.toArray(), this.toArray());
+    }
+
+    /**
+     * @return A new list with the same values, in full nodes, and the same event object. No events are fired.
+     */
+    @Override
+    public Object clone()
+    {
+        UnrolledLinkedList<T, T1> clone = UnrolledLinkedList.from(this.toArray());
+        clone.setEventClass(this.eventClassInstance);
+
+        return clone;
+    }
+}
@@ -0,0 +1,134 @@
+package jStructs;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A secondary index from each value of a list to the sorted positions it is stored at. It has to be told about every
+ * change to the list it indexes, see {@code ArrList.setIndexed}.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+final class ValueIndex
+{
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final Map<Object, Positions> positions = new HashMap<>();
+    private int stamp;
+
+    static ValueIndex of(Object[] array, int size)
+    {
+        ValueIndex index = new ValueIndex();
+
+        for(int i = 0; i < size; i++)
+        {
+            index.add(array[i], i);
+        }
+
+        return index;
+    }
+
+    void add(Object value, int position)
+    {
+        this.positions.computeIfAbsent(value, v -> new Positions()).add(position);
+    }
+
+    void remove(Object value, int position)
+    {
+        Positions p = this.positions.get(value);
+        if(p == null) return;
+
+        p.remove(position);
+        if(p.count == 0) this.positions.remove(value);
+    }
+
+    /**
+     * Moves every position of the values stored in {@code array[from, to)} that is at least {@code threshold} by
+     * {@code delta}. Used after the list shifted those values, since each of their positions past the shift point moved.
+     */
+    void shift(Object[] array, int from, int to, int threshold, int delta)
+    {
+        int stamp = ++this.stamp;
+
+        for(int i = from; i < to; i++)
+        {
+            Positions p = this.positions.get(array[i]);
+
+            if(p != null && p.stamp != stamp)
+            {
+                p.stamp = stamp;
+                p.shift(threshold, delta);
+            }
+        }
+    }
+
+    void clear()
+    {
+        this.positions.clear();
+    }
+
+    boolean contains(Object value)
+    {
+        return this.positions.containsKey(value);
+    }
+
+    int occurrencesOf(Object value)
+    {
+        Positions p = this.positions.get(value);
+        return p == null ? 0 : p.count;
+    }
+
+    int[] positionsOf(Object value)
+    {
+        Positions p = this.positions.get(value);
+        return p == null ? NO_POSITIONS : Arrays.copyOf(p.values, p.count);
+    }
+
+    private static final class Positions
+    {
+        private int[] values = new int[1];
+        private int count, stamp;
+
+        private void add(int position)
+        {
+            int at = this.count == 0 || this.values[this.count - 1] < position ? this.count : this.lowerBound(position);
+
+            if(this.count == this.values.length) this.values = Arrays.copyOf(this.values, this.count * 2);
+
+            System.arraycopy(this.values, at, this.values, at + 1, this.count - at);
+            this.values[at] = position;
+            this.count++;
+        }
+
+        private void remove(int position)
+        {
+            int at = this.lowerBound(position);
+            if(at == this.count || this.values[at] != position) return;
+
+            System.arraycopy(this.values, at + 1, this.values, at, this.count - at - 1);
+            this.count--;
+        }
+
+        private void shift(int threshold, int delta)
+        {
+            for(int i = this.lowerBound(threshold); i < this.count; i++)
+            {
+                this.values[i] += delta;
+            }
+        }
+
+        private int lowerBound(int position)
+        {
+            int low = 0, high = this.count;
+
+            while(low < high)
+            {
+                int mid = (low + high) >>> 1;
+
+                if(this.values[mid] < position) low = mid + 1;
+                else high = mid;
+            }
+
+            return low;
+        }
+    }
+}
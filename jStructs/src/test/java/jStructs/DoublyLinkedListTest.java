@@ -0,0 +1,246 @@
+package jStructs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a {@code DoublyLinkedList}'s cached head, tail, length, hash and positional index follow changes made to
+ * its nodes directly, and that splicing and splitting keep both lists whole.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class DoublyLinkedListTest
+{
+    @Test
+    public void lengthFollowsNodesLinkedDirectly()
+    {
+        DoublyNode<Integer> first = new DoublyNode<>(1);
+        DoublyLinkedList<Integer, Object> list = DoublyLinkedList.from(first);
+        assertEquals(1, list.length());
+
+        DoublyNode<Integer> second = new DoublyNode<>(first, 2);
+        assertEquals(2, list.length());
+        assertSame(second, list.getTail().orElseThrow());
+
+        DoublyNode<Integer> zeroth = new DoublyNode<>(0);
+        first.setPrev(zeroth);
+        assertEquals(3, list.length());
+        assertSame(zeroth, list.getHead().orElseThrow());
+    }
+
+    @Test
+    public void lengthFollowsDirectUnlinks()
+    {
+        DoublyLinkedList<Integer, Object> list = new DoublyLinkedList<>();
+        for(int i = 0; i < 5; i++) list.addLast(i);
+        assertEquals(5, list.length());
+
+        DoublyNode<Integer> head = list.getHead().orElseThrow();
+        head.getNextOrNull().getNextOrNull().setNext(null);
+        assertEquals(3, list.length());
+        assertEquals(2, list.getTail().orElseThrow().getOrNull());
+    }
+
+    @Test
+    public void indexFollowsDirectRelinks()
+    {
+        DoublyLinkedList<Integer, Object> list = new DoublyLinkedList<>();
+        list.setIndexed(true);
+        for(int i = 0; i < 100; i++) list.addLast(i);
+
+        list.seek(50);
+        DoublyNode<Integer> fifty = list.getCurrent().orElseThrow();
+        assertEquals(50, list.indexOf(fifty));
+
+        //  unlink the node at 10 behind the list's back
+        DoublyNode<Integer> nine = list.getHead().orElseThrow();
+        for(int i = 0; i < 9; i++) nine = nine.getNextOrNull();
+        DoublyNode<Integer> ten = nine.getNextOrNull();
+        nine.setNext(ten.getNextOrNull());
+
+        assertEquals(99, list.length());
+        assertEquals(49, list.indexOf(fifty));
+        assertEquals(-1, list.indexOf(ten));
+
+        list.seek(49);
+        assertSame(fifty, list.getCurrent().orElseThrow());
+        list.seek(10);
+        assertEquals(11, list.getCurrent().orElseThrow().getOrNull());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.seek(99));
+    }
+
+    @Test
+    public void indexFollowsNodesLinkedDirectly()
+    {
+        DoublyLinkedList<Integer, Object> list = new DoublyLinkedList<>();
+        list.setIndexed(true);
+        for(int i = 0; i < 40; i++) list.addLast(i);
+        DoublyNode<Integer> head = list.getHead().orElseThrow();
+        assertEquals(0, list.indexOf(head));
+
+        DoublyNode<Integer> before = new DoublyNode<>(-1);
+        head.setPrev(before);
+
+        assertEquals(1, list.indexOf(head));
+        assertEquals(0, list.indexOf(before));
+        list.traverseNext(30);
+        assertEquals(30, list.getCurrent().orElseThrow().getOrNull());
+    }
+
+    @Test
+    public void hashFollowsDirectEdits()
+    {
+        DoublyLinkedList<Integer, Object> list = new DoublyLinkedList<>();
+        for(int i = 1; i <= 3; i++) list.addLast(i);
+        DoublyNode<Integer> first = list.getHead().orElseThrow(), second = first.getNextOrNull();
+        assertEquals(List.of(1, 2, 3).hashCode(), list.hashCode());
+
+        second.set(99);
+        assertEquals(List.of(1, 99, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(1, 99, 3).hashCode(), second.hashCode());
+
+        first.setPrev(new DoublyNode<>(0));
+        assertEquals(List.of(0, 1, 99, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(0, 1, 99, 3).hashCode(), first.hashCode());
+
+        list.set(5);
+        assertEquals(List.of(0, 5, 99, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(0, 5, 99, 3).hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void concatAndSpliceMoveEveryNode()
+    {
+        DoublyLinkedList<Integer, Object> list = DoublyLinkedListTest.of(1, 2, 5), middle = DoublyLinkedListTest.of(3, 4),
+                end = DoublyLinkedListTest.of(6, 7);
+        DoublyNode<Integer> two = list.getHead().orElseThrow().getNextOrNull();
+
+        list.splice(two, middle);
+        list.concat(end);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), DoublyLinkedListTest.values(list));
+        assertEquals(7, list.length());
+        assertEquals(7, list.getTail().orElseThrow().getOrNull());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7).hashCode(), list.hashCode());
+        assertEquals(0, middle.length());
+        assertEquals(0, end.length());
+    }
+
+    @Test
+    public void spliceRejectsForeignNodes()
+    {
+        DoublyLinkedList<Integer, Object> list = DoublyLinkedListTest.of(1, 2, 3), other = DoublyLinkedListTest.of(4, 5),
+                foreign = DoublyLinkedListTest.of(6, 7, 8);
+        DoublyNode<Integer> foreignMiddle = foreign.getHead().orElseThrow().getNextOrNull();
+
+        assertThrows(IllegalArgumentException.class, () -> list.splice(foreignMiddle, other));
+        assertThrows(IllegalArgumentException.class, () -> list.splitAt(foreignMiddle));
+
+        //  a node split off from the list shares its nodes' counter but is no longer in it
+        DoublyLinkedList<Integer, Object> rest = list.splitAt(list.getHead().orElseThrow().getNextOrNull());
+        DoublyNode<Integer> three = rest.getTail().orElseThrow();
+        assertThrows(IllegalArgumentException.class, () -> list.splice(three, other));
+        assertThrows(IllegalArgumentException.class, () -> list.splitAt(three));
+
+        assertEquals(List.of(1), DoublyLinkedListTest.values(list));
+        assertEquals(List.of(2, 3), DoublyLinkedListTest.values(rest));
+        assertEquals(List.of(4, 5), DoublyLinkedListTest.values(other));
+        assertEquals(List.of(6, 7, 8), DoublyLinkedListTest.values(foreign));
+    }
+
+    @Test
+    public void splitAtKeepsBothHalvesCounted()
+    {
+        DoublyLinkedList<Integer, Object> list = DoublyLinkedListTest.of(0, 1, 2, 3, 4, 5);
+        list.setIndexed(true);
+        DoublyNode<Integer> three = list.getHead().orElseThrow();
+        for(int i = 0; i < 3; i++) three = three.getNextOrNull();
+
+        DoublyLinkedList<Integer, Object> rest = list.splitAt(three);
+        assertEquals(3, list.length());
+        assertEquals(3, rest.length());
+        assertEquals(2, list.getTail().orElseThrow().getOrNull());
+        assertSame(three, rest.getHead().orElseThrow());
+
+        rest.addLast(6);
+        list.addFirst(-1);
+        assertEquals(List.of(-1, 0, 1, 2), DoublyLinkedListTest.values(list));
+        assertEquals(List.of(3, 4, 5, 6), DoublyLinkedListTest.values(rest));
+        assertEquals(1, rest.indexOf(rest.getHead().orElseThrow().getNextOrNull()));
+
+        list.concat(rest);
+        assertEquals(List.of(-1, 0, 1, 2, 3, 4, 5, 6), DoublyLinkedListTest.values(list));
+        assertEquals(8, list.length());
+    }
+
+    @Test
+    public void emptiedListsStayUsable()
+    {
+        DoublyLinkedList<Integer, Object> list = DoublyLinkedListTest.of(1, 2), other = DoublyLinkedListTest.of(3);
+        list.concat(other);
+        assertEquals(0, other.length());
+
+        other.traverseNext(1);
+        other.set(9);
+        other.addLast(4);
+        assertEquals(4, other.getTail().orElseThrow().getOrNull());
+
+        DoublyLinkedList<Integer, Object> whole = DoublyLinkedListTest.of(5, 6), rest = whole.splitAt(whole.getHead().orElseThrow());
+        assertEquals(0, whole.length());
+        whole.set(7);
+        whole.traverseNext(1);
+        assertEquals(List.of(5, 6), DoublyLinkedListTest.values(rest));
+    }
+
+    @Test
+    public void splitAtKeepsTheEventBus() throws Exception
+    {
+        SetCounter counter = new SetCounter();
+        DoublyLinkedList<Integer, SetCounter> list = new DoublyLinkedList<>();
+        for(int i = 0; i < 4; i++) list.addLast(i);
+        list.setEventClass(counter);
+
+        try(EventBus bus = new EventBus())
+        {
+            list.setEventBus(bus);
+            DoublyLinkedList<Integer, SetCounter> rest = list.splitAt(list.getTail().orElseThrow());
+
+            rest.setCurrent(rest.getHead().orElseThrow());
+            assertTrue(counter.fired.await(10, TimeUnit.SECONDS));
+            assertNotSame(Thread.currentThread(), counter.thread);
+        }
+    }
+
+    public static class SetCounter
+    {
+        private final CountDownLatch fired = new CountDownLatch(1);
+        private volatile Thread thread;
+
+        @DoublyLinkedList.SetEvent
+        public void onSet(DoublyLinkedList<?, ?> list)
+        {
+            this.thread = Thread.currentThread();
+            this.fired.countDown();
+        }
+    }
+
+    private static DoublyLinkedList<Integer, Object> of(Integer... values)
+    {
+        DoublyLinkedList<Integer, Object> list = new DoublyLinkedList<>();
+        for(Integer value : values) list.addLast(value);
+        return list;
+    }
+
+    private static List<Integer> values(DoublyLinkedList<Integer, ?> list)
+    {
+        List<Integer> values = new ArrayList<>();
+        list.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,71 @@
+package jStructs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Hammers a {@code LockFreeOrderedList} with 16 threads adding and removing values from one small shared range, and
+ * checks that what is left is exactly what the successful adds and removes add up to, in order.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class LockFreeOrderedListStressIT
+{
+    private static final int THREADS = 16, OPERATIONS = 200_000, KEYS = 512;
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    public void endsWithTheNetAddsAndRemoves() throws Exception
+    {
+        LockFreeOrderedList<Integer, Object> list = new LockFreeOrderedList<>();
+        //  successful adds minus successful removes, per key; for a correct list it only ever ends at 0 or 1
+        AtomicIntegerArray net = new AtomicIntegerArray(KEYS);
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+
+        for(int t = 0; t < THREADS; t++)
+        {
+            long seed = t;
+            threads.add(new Thread(() ->
+            {
+                SplittableRandom random = new SplittableRandom(seed);
+                LockFreeQueueStressIT.await(start);
+
+                for(int i = 0; i < OPERATIONS; i++)
+                {
+                    int key = random.nextInt(KEYS);
+                    if(random.nextBoolean())
+                    {
+                        if(list.add(key)) net.incrementAndGet(key);
+                    }
+                    else if(list.remove(key))
+                    {
+                        net.decrementAndGet(key);
+                    }
+                }
+            }, "worker-" + t));
+        }
+
+        for(Thread thread : threads) thread.start();
+        for(Thread thread : threads) thread.join();
+
+        List<Integer> expected = new ArrayList<>(), actual = new ArrayList<>();
+        for(int key = 0; key < KEYS; key++)
+        {
+            int count = net.get(key);
+            assertTrue(count == 0 || count == 1, "key " + key + " was added " + count + " more times than removed");
+            if(count == 1) expected.add(key);
+            assertEquals(count == 1, list.contains(key), "contains " + key);
+        }
+
+        list.forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), list.length());
+    }
+}
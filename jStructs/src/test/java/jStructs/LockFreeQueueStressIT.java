@@ -0,0 +1,96 @@
+package jStructs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Hammers a {@code LockFreeQueue} with 8 producer and 8 consumer threads at once, and checks that every value offered
+ * is polled exactly once and that each consumer sees any one producer's values in the order they were offered.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class LockFreeQueueStressIT
+{
+    private static final int PRODUCERS = 8, CONSUMERS = 8, PER_PRODUCER = 200_000;
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    public void deliversEveryValueOnceInProducerOrder() throws Exception
+    {
+        LockFreeQueue<Long, Object> queue = new LockFreeQueue<>();
+        AtomicIntegerArray polls = new AtomicIntegerArray(PRODUCERS * PER_PRODUCER);
+        AtomicLong remaining = new AtomicLong((long) PRODUCERS * PER_PRODUCER);
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        CyclicBarrier start = new CyclicBarrier(PRODUCERS + CONSUMERS);
+        List<Thread> threads = new ArrayList<>();
+
+        for(int p = 0; p < PRODUCERS; p++)
+        {
+            long producer = p;
+            threads.add(new Thread(() ->
+            {
+                await(start);
+                //  each value carries its producer in the high half and its sequence number in the low half
+                for(int seq = 0; seq < PER_PRODUCER; seq++) queue.offer(producer << 32 | seq);
+            }, "producer-" + p));
+        }
+
+        for(int c = 0; c < CONSUMERS; c++)
+        {
+            threads.add(new Thread(() ->
+            {
+                int[] last = new int[PRODUCERS];
+                Arrays.fill(last, -1);
+                await(start);
+
+                while(remaining.get() > 0)
+                {
+                    Long value = queue.poll().orElse(null);
+                    if(value == null)
+                    {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+
+                    int producer = (int) (value >>> 32), seq = (int) (long) value;
+                    if(seq <= last[producer])
+                    {
+                        failures.add("producer " + producer + "'s value " + seq + " came after " + last[producer]);
+                    }
+                    last[producer] = seq;
+
+                    int times = polls.incrementAndGet(producer * PER_PRODUCER + seq);
+                    if(times != 1) failures.add("value " + producer + ":" + seq + " was polled " + times + " times");
+                    remaining.decrementAndGet();
+                }
+            }, "consumer-" + c));
+        }
+
+        for(Thread thread : threads) thread.start();
+        for(Thread thread : threads) thread.join();
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " failures, first: " + failures.get(0));
+        for(int i = 0; i < polls.length(); i++) assertEquals(1, polls.get(i), "polls of value " + i);
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.length());
+    }
+
+    static void await(CyclicBarrier barrier)
+    {
+        try
+        {
+            barrier.await();
+        }catch(Exception ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package jStructs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a {@code SinglyLinkedList}'s cached head, tail, length and hash follow changes made to its nodes
+ * directly.
+ * @author <a href="https://github.com/carlosreyna0">Carlos Reyna</a>
+ */
+public class SinglyLinkedListTest
+{
+    @Test
+    public void lengthFollowsDirectRelinks()
+    {
+        SinglyNode<Integer> first = new SinglyNode<>(1), second = new SinglyNode<>(2);
+        SinglyLinkedList<Integer, Object> list = SinglyLinkedList.from(first);
+        assertEquals(1, list.length());
+
+        first.setNext(second);
+        assertEquals(2, list.length());
+        assertSame(second, list.getTail().orElseThrow());
+
+        first.setNext(null);
+        assertEquals(1, list.length());
+        assertSame(first, list.getTail().orElseThrow());
+    }
+
+    @Test
+    public void lengthFollowsOtherListsOnTheSameChain()
+    {
+        SinglyNode<Integer> first = new SinglyNode<>(1);
+        SinglyLinkedList<Integer, Object> list = SinglyLinkedList.from(first), other = SinglyLinkedList.from(first);
+        assertEquals(1, list.length());
+
+        other.addLast(2);
+        other.addLast(3);
+        assertEquals(3, list.length());
+        assertEquals(3, list.getTail().orElseThrow().getOrNull());
+    }
+
+    @Test
+    public void traverseToEndAfterRunningOffTheEnd()
+    {
+        SinglyLinkedList<Integer, Object> list = new SinglyLinkedList<>();
+        for(int i = 0; i < 4; i++) list.addLast(i);
+
+        list.traverseNext(10);
+        assertEquals(0, list.length());
+
+        list.traverseToEnd();
+        assertEquals(3, list.getCurrent().orElseThrow().getOrNull());
+        assertEquals(1, list.length());
+    }
+
+    @Test
+    public void hashFollowsDirectEdits()
+    {
+        SinglyNode<Integer> first = new SinglyNode<>(1), second = new SinglyNode<>(2), third = new SinglyNode<>(3);
+        first.setNext(second);
+        second.setNext(third);
+
+        SinglyLinkedList<Integer, Object> list = SinglyLinkedList.from(first);
+        assertEquals(List.of(1, 2, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(1, 2, 3).hashCode(), first.hashCode());
+
+        second.set(99);
+        assertEquals(List.of(1, 99, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(1, 99, 3).hashCode(), first.hashCode());
+        assertEquals(List.of(99, 3).hashCode(), second.hashCode());
+
+        first.setNext(third);
+        assertEquals(List.of(1, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(1, 3).hashCode(), first.hashCode());
+
+        list.set(7);
+        assertEquals(List.of(7, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(7, 3).hashCode(), first.hashCode());
+    }
+}